@@ -18,7 +18,6 @@ public class College {
 
     private String location;
 
-    // ID of the COLLEGE_ADMIN user in Auth Service
-    @Column(nullable = false)
+    // ID of the COLLEGE_ADMIN user in Auth Service; set in the same transaction that creates the college
     private Long adminUserId;
 }
\ No newline at end of file
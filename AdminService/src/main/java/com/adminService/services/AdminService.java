@@ -46,12 +46,19 @@ public class AdminService {
             throw new DuplicateResourceException("College with the name '" + request.getName() + "' already exists.");
         }
 
+        // Saved first so the admin account can be linked to the college's id
+        College college = collegeRepository.save(College.builder()
+                .name(request.getName())
+                .location(request.getLocation())
+                .build());
+
         String tempPassword = RandomStringUtils.randomAlphanumeric(8);
 
         SignupRequest userRequest = new SignupRequest();
         userRequest.setEmail(request.getAdminEmail());
         userRequest.setPassword(tempPassword);
         userRequest.setRole("COLLEGE_ADMIN");
+        userRequest.setCollegeId(college.getId());
 
         Long adminUserId;
 
@@ -63,12 +70,7 @@ public class AdminService {
         // Extract the actual ID from the wrapper
         adminUserId = authResponse.getData();
 
-        College college = College.builder()
-                .name(request.getName())
-                .location(request.getLocation())
-                .adminUserId(adminUserId)
-                .build();
-
+        college.setAdminUserId(adminUserId);
         return collegeRepository.save(college);
     }
 
@@ -0,0 +1,43 @@
+package com.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response compression settings for CompressionFilter, bound from {@code gateway.compression.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    // Bodies smaller than this go out as they are; gzip framing would eat most of the saving
+    private int minResponseSize = 1024;
+
+    // Deflater level, 1 (fastest) to 9 (smallest)
+    private int level = 5;
+
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/*+json", "application/xml", "application/javascript",
+            "text/html", "text/plain", "text/css", "text/xml"));
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMinResponseSize() { return minResponseSize; }
+
+    public void setMinResponseSize(int minResponseSize) { this.minResponseSize = minResponseSize; }
+
+    public int getLevel() { return level; }
+
+    public void setLevel(int level) { this.level = level; }
+
+    public List<String> getMimeTypes() { return mimeTypes; }
+
+    public void setMimeTypes(List<String> mimeTypes) { this.mimeTypes = mimeTypes; }
+}
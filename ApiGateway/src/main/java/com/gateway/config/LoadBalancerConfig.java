@@ -0,0 +1,16 @@
+package com.gateway.config;
+
+import com.gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import com.gateway.loadbalancer.UserAffinityLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// Every lb:// route picks its instance by peak-EWMA cost instead of round-robin,
+// except notification WebSocket handshakes, which are pinned to the instance owning the user
+@Configuration
+@LoadBalancerClients(
+        value = @LoadBalancerClient(name = "notification-service", configuration = UserAffinityLoadBalancerConfiguration.class),
+        defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
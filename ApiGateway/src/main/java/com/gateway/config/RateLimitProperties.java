@@ -0,0 +1,68 @@
+package com.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-path limits for RateLimitFilter, bound from {@code gateway.rate-limit.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    // Upper bound on tracked keys per limiter (per rule and per dimension)
+    private int maxKeys = 100_000;
+
+    // Use the last X-Forwarded-For hop as the client IP (only when a trusted proxy sits in front)
+    private boolean trustForwardedFor = false;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public int getMaxKeys() { return maxKeys; }
+
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+
+    public List<Rule> getRules() { return rules; }
+
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    public static class Rule {
+        private String path;
+        private Limit perIp;
+        private Limit perEmail;
+
+        public String getPath() { return path; }
+
+        public void setPath(String path) { this.path = path; }
+
+        public Limit getPerIp() { return perIp; }
+
+        public void setPerIp(Limit perIp) { this.perIp = perIp; }
+
+        public Limit getPerEmail() { return perEmail; }
+
+        public void setPerEmail(Limit perEmail) { this.perEmail = perEmail; }
+    }
+
+    public static class Limit {
+        // Burst size: requests allowed back to back from a full bucket
+        private int capacity;
+        // Sustained rate the bucket refills at
+        private int refillPerMinute;
+
+        public int getCapacity() { return capacity; }
+
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getRefillPerMinute() { return refillPerMinute; }
+
+        public void setRefillPerMinute(int refillPerMinute) { this.refillPerMinute = refillPerMinute; }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GET paths whose responses ResponseCacheFilter may serve from memory, bound from {@code gateway.response-cache.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // Upper bound on cached responses across all rules
+    private int maxEntries = 1_000;
+
+    // Responses bigger than this are passed through uncached
+    private int maxBodyBytes = 256 * 1024;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public int getMaxEntries() { return maxEntries; }
+
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    public int getMaxBodyBytes() { return maxBodyBytes; }
+
+    public void setMaxBodyBytes(int maxBodyBytes) { this.maxBodyBytes = maxBodyBytes; }
+
+    public List<Rule> getRules() { return rules; }
+
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    public static class Rule {
+        // Route pattern, same syntax as gateway.open-endpoints ('*' = one segment, '**' = the rest)
+        private String path;
+        private Duration ttl = Duration.ofMinutes(5);
+        // Successful non-GET requests to these patterns drop every response cached for this rule
+        private List<String> invalidatedBy = new ArrayList<>();
+
+        public String getPath() { return path; }
+
+        public void setPath(String path) { this.path = path; }
+
+        public Duration getTtl() { return ttl; }
+
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public List<String> getInvalidatedBy() { return invalidatedBy; }
+
+        public void setInvalidatedBy(List<String> invalidatedBy) { this.invalidatedBy = invalidatedBy; }
+    }
+}
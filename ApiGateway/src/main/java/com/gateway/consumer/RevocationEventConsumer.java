@@ -0,0 +1,67 @@
+package com.gateway.consumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.filters.TokenRevocationList;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Feeds the revocation list from the events AuthService already publishes.
+ * Every gateway instance needs every event, so each one joins its own consumer group and, on
+ * startup, rewinds far enough to cover any token that could still be alive.
+ */
+@Component
+public class RevocationEventConsumer implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationEventConsumer.class);
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${gateway.auth.revocation.retention:35m}")
+    private Duration retention;
+
+    @KafkaListener(topics = {"notification.user", "notification.system"},
+            groupId = "api-gateway-revocation-${random.uuid}",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void consume(ConsumerRecord<String, String> record) {
+        String message = record.value();
+        // Most events on these topics are not revocations; skip them without parsing
+        if (message == null || !(message.contains("\"STATUS_CHANGED\"") || message.contains("\"PASSWORD_CHANGED\""))) {
+            return;
+        }
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String eventType = event.path("eventType").asText();
+            String email = event.path("targetEmail").asText(null);
+            if (email == null || !("STATUS_CHANGED".equals(eventType) || "PASSWORD_CHANGED".equals(eventType))) {
+                return;
+            }
+            // The record timestamp is when AuthService made the change (the outbox row's createdAt, not the
+            // relay's send time), from the same clock that stamps iat
+            revocations.revoke(email, record.timestamp());
+            log.info("Revoked tokens issued before {} for [{}] ({})", record.timestamp(), email, eventType);
+        } catch (Exception e) {
+            log.error("Could not read revocation event: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - retention.toMillis());
+    }
+}
@@ -0,0 +1,103 @@
+package com.gateway.filters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the downstream's latency, in the style of the gradient limiter
+ * from Netflix's concurrency-limits.
+ * <p>
+ * A slow exponential average of response times stands for the service's unloaded latency; each
+ * new sample is compared against it. While samples stay within {@code tolerance} of that baseline
+ * the limit grows by about its square root (room for a small queue); once queueing pushes latency
+ * up the limit is scaled down by the ratio, so excess requests are refused at the gateway instead
+ * of waiting in Tomcat and Hikari queues.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    // ~600-sample EWMA for the baseline latency
+    private static final double LONG_RTT_ALPHA = 2.0 / 601;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Expected 0 < minLimit <= initialLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return the number of requests in flight including this one, or -1 when the limit is reached
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit and feeds its response time into the limit.
+     *
+     * @param inFlightAtStart what {@link #tryAcquire()} returned for this request
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    // Cancelled requests say nothing about downstream latency
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_ALPHA;
+        }
+        // After a long slow period the baseline is too high; let it come back down faster
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // Too little traffic to tell whether a bigger limit would be safe
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
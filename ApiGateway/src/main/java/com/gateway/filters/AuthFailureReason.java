@@ -0,0 +1,27 @@
+package com.gateway.filters;
+
+/**
+ * Why the gateway refused a request to a secured route. Each reason carries its pre-built 401 body.
+ */
+public enum AuthFailureReason {
+
+    MISSING("Missing Authorization header.", "ERR_AUTH_MISSING"),
+    MALFORMED("Malformed access token.", "ERR_AUTH_MALFORMED"),
+    EXPIRED("Access token has expired.", "ERR_AUTH_EXPIRED"),
+    BAD_SIGNATURE("Invalid access token.", "ERR_AUTH_INVALID"),
+    REVOKED("Access token has been revoked. Please log in again.", "ERR_AUTH_REVOKED");
+
+    private final byte[] body;
+
+    AuthFailureReason(String message, String errorCode) {
+        this.body = GatewayErrorResponse.body(message, errorCode);
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -1,30 +1,69 @@
 package com.gateway.filters;
 
 
+import com.gateway.metrics.GatewayStage;
+import com.gateway.metrics.StageTimers;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
+    // Identity headers downstream services trust; only this filter may set them
+    private static final List<String> USER_HEADERS = List.of("loggedInUserRole", "loggedInUserEmail",
+            "loggedInUserId", "loggedInUserCollegeId", "loggedInUserDepartmentId");
+
     @Autowired
     private RouteValidator validator;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationList revocations;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StageTimers stageTimers;
 
     @Value("${gateway.secret}")
     private String gatewaySecret;
 
+    private final Map<AuthFailureReason, Counter> rejections = new EnumMap<>(AuthFailureReason.class);
+
     public AuthenticationFilter() {
         super(Config.class);
     }
 
+    @PostConstruct
+    void init() {
+        for (AuthFailureReason reason : AuthFailureReason.values()) {
+            rejections.put(reason, Counter.builder("gateway.auth.rejected")
+                    .tag("reason", reason.tag())
+                    .description("Requests to secured routes refused with 401")
+                    .register(meterRegistry));
+        }
+    }
+
     @Override
     public GatewayFilter apply(Config config) {
         return ((exchange, chain) -> {
@@ -34,36 +73,55 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 return chain.filter(exchange);
             }
 
-            ServerHttpRequest.Builder requestBuilder = request.mutate();
-
-            // 1. Validation Logic
-            if (validator.isSecured.test(request)) {
-                if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                    throw new RuntimeException("Missing Authorization Header");
-                }
+            // 1. Validation Logic (rejections are decided before anything is mutated)
+            long start = System.nanoTime();
+            boolean secured = validator.isSecured(request);
+            stageTimers.record(exchange, GatewayStage.ROUTE_MATCH, System.nanoTime() - start);
+            long matched = System.nanoTime();
 
+            VerifiedTokenCache.VerifiedToken token = null;
+            if (secured) {
                 String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                if (authHeader == null) {
+                    return reject(exchange, AuthFailureReason.MISSING, matched);
+                }
+                if (authHeader.startsWith("Bearer ")) {
                     authHeader = authHeader.substring(7);
                 }
+                // Cheap shape check first, so garbage never reaches the parser
+                if (!isCompactJws(authHeader)) {
+                    return reject(exchange, AuthFailureReason.MALFORMED, matched);
+                }
 
+                // A. Validate Token (signature is verified once per token, then served from cache)
                 try {
-                    // A. Validate Token
-                    jwtUtil.validateToken(authHeader);
-
-                    // B. Extract Claims (Crucial for RBAC)
-                    String role = jwtUtil.extractClaim(authHeader, claims -> claims.get("role", String.class));
-                    String userId = jwtUtil.extractClaim(authHeader, claims -> claims.get("userId", String.class)); // Assuming you put userId in token, else use email
+                    token = tokenCache.verify(authHeader);
+                } catch (SignatureException e) {
+                    return reject(exchange, AuthFailureReason.BAD_SIGNATURE, matched);
+                } catch (JwtException | IllegalArgumentException e) {
+                    return reject(exchange, AuthFailureReason.MALFORMED, matched);
+                }
+                if (token.isExpired(System.currentTimeMillis())) {
+                    return reject(exchange, AuthFailureReason.EXPIRED, matched);
+                }
+                // Suspended users and changed passwords invalidate tokens issued before the event
+                if (revocations.isRevoked(token.email(), token.issuedAtMillis())) {
+                    return reject(exchange, AuthFailureReason.REVOKED, matched);
+                }
+                stageTimers.record(exchange, GatewayStage.JWT_VERIFY, System.nanoTime() - matched);
+            }
 
-                    // C. Inject User Details into Headers for Downstream Services
-                    requestBuilder.header("loggedInUserRole", role);
-                    requestBuilder.header("loggedInUserEmail", jwtUtil.extractUsername(authHeader));
-                    requestBuilder.header("loggedInUserId", userId);
+            ServerHttpRequest.Builder requestBuilder = request.mutate();
 
-                } catch (Exception e) {
-                    System.out.println("Invalid Access: " + e.getMessage());
-                    throw new RuntimeException("Unauthorized access to application");
-                }
+            // B. Inject User Details into Headers for Downstream Services (Crucial for RBAC)
+            // Client-sent copies are dropped first, so a claim the token lacks cannot be supplied by hand
+            requestBuilder.headers(headers -> USER_HEADERS.forEach(headers::remove));
+            if (token != null) {
+                setHeaderIfPresent(requestBuilder, "loggedInUserRole", token.role());
+                setHeaderIfPresent(requestBuilder, "loggedInUserEmail", token.email());
+                setHeaderIfPresent(requestBuilder, "loggedInUserId", token.userId());
+                setHeaderIfPresent(requestBuilder, "loggedInUserCollegeId", token.collegeId());
+                setHeaderIfPresent(requestBuilder, "loggedInUserDepartmentId", token.departmentId());
             }
 
             // 2. Add Gateway Secret Header (For ALL requests)
@@ -73,6 +131,39 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         });
     }
 
+    private Mono<Void> reject(ServerWebExchange exchange, AuthFailureReason reason, long verifyStartNanos) {
+        stageTimers.record(exchange, GatewayStage.JWT_VERIFY, System.nanoTime() - verifyStartNanos);
+        rejections.get(reason).increment();
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        return GatewayErrorResponse.write(exchange, HttpStatus.UNAUTHORIZED, reason.body());
+    }
+
+    // header.payload.signature, each a non-empty base64url segment
+    static boolean isCompactJws(String token) {
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0 || ++dots > 2) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
+    }
+
+    private static void setHeaderIfPresent(ServerHttpRequest.Builder requestBuilder, String name, String value) {
+        if (value != null) {
+            requestBuilder.header(name, value);
+        }
+    }
+
     public static class Config {
     }
 }
\ No newline at end of file
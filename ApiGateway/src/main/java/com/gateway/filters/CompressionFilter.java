@@ -0,0 +1,267 @@
+package com.gateway.filters;
+
+import com.gateway.config.CompressionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gzips responses for clients that accept it, once the body reaches {@code gateway.compression.min-response-size}.
+ * <p>
+ * Compression is streamed: with a known Content-Length the decision is made up front, otherwise
+ * chunks are held only until the threshold is crossed (or the body ends below it). Responses that
+ * already carry a Content-Encoding, such as the precompressed ones ResponseCacheFilter serves, pass
+ * through untouched.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    private static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final int level;
+    private final List<MediaType> mimeTypes;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    public CompressionFilter(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.minResponseSize = properties.getMinResponseSize();
+        this.level = properties.getLevel();
+        this.mimeTypes = MediaType.parseMediaTypes(properties.getMimeTypes());
+        this.bytesIn = Counter.builder("gateway.compression.bytes")
+                .tag("direction", "in")
+                .description("Response bytes before gzip")
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("gateway.compression.bytes")
+                .tag("direction", "out")
+                .description("Response bytes after gzip")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        if (!enabled
+                || exchange.getRequest().getMethod() == HttpMethod.HEAD
+                || "websocket".equalsIgnoreCase(requestHeaders.getUpgrade())
+                || !acceptsGzip(requestHeaders)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new CompressingResponse(exchange.getResponse())).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Outside every route filter, so whatever they write (cache hits included) passes through here
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String header : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : header.split(",")) {
+                int semicolon = coding.indexOf(';');
+                String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+                if ((GZIP.equalsIgnoreCase(name) || "*".equals(name))
+                        && (semicolon < 0 || !isZeroQuality(coding.substring(semicolon + 1)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameters) {
+        String q = parameters.replace(" ", "");
+        return q.startsWith("q=0") && q.substring(3).replace(".", "").replace("0", "").isEmpty();
+    }
+
+    private boolean isCompressible(MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        for (MediaType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gzipped copy of a body that will be served many times, or null when it would not be compressed anyway.
+     */
+    byte[] precompress(MediaType contentType, byte[] body) {
+        if (!enabled || body.length < minResponseSize || !isCompressible(contentType)) {
+            return null;
+        }
+        return GzipEncoder.gzip(body, level);
+    }
+
+    // The same representation encoded differently needs its own strong ETag
+    static String gzipEtag(String etag) {
+        if (etag == null || etag.startsWith("W/") || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    static void markGzip(HttpHeaders headers) {
+        headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        varyOnAcceptEncoding(headers);
+        String etag = headers.getETag();
+        if (etag != null) {
+            headers.setETag(gzipEtag(etag));
+        }
+    }
+
+    static void varyOnAcceptEncoding(HttpHeaders headers) {
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        CompressingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!shouldCompress()) {
+                return super.writeWith(body);
+            }
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength >= 0 && contentLength < minResponseSize) {
+                return super.writeWith(body);
+            }
+            GzipBody gzip = new GzipBody(this);
+            if (contentLength >= 0) {
+                gzip.startCompressing();
+            }
+            return super.writeWith(Flux.from(body)
+                    .concatMapIterable(gzip::accept)
+                    .concatWith(Flux.defer(gzip::complete))
+                    .doFinally(signal -> gzip.close()));
+        }
+
+        private boolean shouldCompress() {
+            HttpHeaders headers = getHeaders();
+            HttpStatusCode status = getStatusCode();
+            String cacheControl = headers.getCacheControl();
+            return (status == null || (status.value() != 204 && status.value() != 304))
+                    && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    && (cacheControl == null || !cacheControl.contains("no-transform"))
+                    && isCompressible(headers.getContentType());
+        }
+    }
+
+    /**
+     * Holds back chunks until the body is known to be big enough, then gzips the rest as it arrives.
+     * Calls are serialized by concatMap; the lock only guards against a cancel racing a chunk.
+     */
+    private final class GzipBody {
+
+        private final ServerHttpResponse response;
+        private List<DataBuffer> pending = new ArrayList<>();
+        private int pendingBytes;
+        private GzipEncoder encoder;
+        private long in;
+        private long out;
+        private boolean closed;
+
+        GzipBody(ServerHttpResponse response) {
+            this.response = response;
+        }
+
+        synchronized void startCompressing() {
+            markGzip(response.getHeaders());
+            encoder = new GzipEncoder(level);
+        }
+
+        synchronized List<DataBuffer> accept(DataBuffer buffer) {
+            if (closed) {
+                DataBufferUtils.release(buffer);
+                return List.of();
+            }
+            if (encoder != null) {
+                DataBuffer compressed = compress(buffer);
+                return compressed == null ? List.of() : List.of(compressed);
+            }
+            pending.add(buffer);
+            pendingBytes += buffer.readableByteCount();
+            if (pendingBytes < minResponseSize) {
+                return List.of();
+            }
+            startCompressing();
+            List<DataBuffer> compressed = new ArrayList<>(pending.size());
+            for (DataBuffer held : pending) {
+                DataBuffer chunk = compress(held);
+                if (chunk != null) {
+                    compressed.add(chunk);
+                }
+            }
+            pending = List.of();
+            return compressed;
+        }
+
+        synchronized Flux<DataBuffer> complete() {
+            if (closed) {
+                return Flux.empty();
+            }
+            if (encoder == null) {
+                // Ended below the threshold: send it as it came
+                List<DataBuffer> held = pending;
+                pending = List.of();
+                return Flux.fromIterable(held);
+            }
+            byte[] tail = encoder.finish();
+            out += tail.length;
+            bytesIn.increment(in);
+            bytesOut.increment(out);
+            return Flux.just(response.bufferFactory().wrap(tail));
+        }
+
+        synchronized void close() {
+            closed = true;
+            pending.forEach(DataBufferUtils::release);
+            pending = List.of();
+            if (encoder != null) {
+                encoder.close();
+            }
+        }
+
+        // null while the Deflater is still filling a block
+        private DataBuffer compress(DataBuffer buffer) {
+            try {
+                in += buffer.readableByteCount();
+                byte[] compressed = encoder.encode(buffer);
+                out += compressed.length;
+                return compressed.length == 0 ? null : response.bufferFactory().wrap(compressed);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gateway.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * One {@link AdaptiveConcurrencyLimiter} per route id. Runs after the route filters and just before
+ * the load balancer, so only requests that are really about to be proxied hold a permit; the rest
+ * get an immediate 503 instead of queueing behind a slow service.
+ */
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] BUSY_BODY =
+            GatewayErrorResponse.body("Service is busy. Please retry shortly.", "ERR_SERVICE_BUSY");
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<String, RouteLimit> routes = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${gateway.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${gateway.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${gateway.concurrency-limit.max-limit:200}") int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        // WebSocket sessions would hold a permit for their whole lifetime
+        if (route == null || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+
+        RouteLimit routeLimit = routes.computeIfAbsent(route.getId(), this::register);
+        AdaptiveConcurrencyLimiter limiter = routeLimit.limiter;
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            routeLimit.rejected.increment();
+            exchange.getResponse().getHeaders().set("Retry-After", "1");
+            return GatewayErrorResponse.write(exchange, HttpStatus.SERVICE_UNAVAILABLE, BUSY_BODY);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                limiter.releaseWithoutSample();
+            } else {
+                limiter.release(System.nanoTime() - start, inFlight);
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Before LoadBalancerStageFilter, so load balancer timings exclude the permit check
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 2;
+    }
+
+    private RouteLimit register(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("route", routeId)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("route", routeId)
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .tag("route", routeId)
+                .description("Requests refused with 503 because the route was at its limit")
+                .register(meterRegistry);
+        return new RouteLimit(limiter, rejected);
+    }
+
+    private record RouteLimit(AdaptiveConcurrencyLimiter limiter, Counter rejected) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.gateway.filters;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ends an exchange at the gateway with a small JSON body shaped like the services' ApiResponse.
+ * Bodies are meant to be built once into constants, so rejecting a request costs no serialization.
+ */
+public final class GatewayErrorResponse {
+
+    private GatewayErrorResponse() {
+    }
+
+    public static byte[] body(String message, String errorCode) {
+        return ("{\"success\":false,\"message\":\"" + message + "\",\"errorCode\":\"" + errorCode + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, byte[] body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
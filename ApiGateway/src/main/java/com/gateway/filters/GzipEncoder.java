@@ -0,0 +1,96 @@
+package com.gateway.filters;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Incremental gzip (RFC 1952) over a raw Deflater, so a body can be compressed chunk by chunk as it
+ * streams through instead of being collected first. Not thread-safe; {@link #close()} must be
+ * called to free the Deflater's native memory.
+ */
+final class GzipEncoder implements AutoCloseable {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] chunk = new byte[8 * 1024];
+    private boolean headerWritten;
+
+    GzipEncoder(int level) {
+        this.deflater = new Deflater(level, true);
+    }
+
+    static byte[] gzip(byte[] body, int level) {
+        try (GzipEncoder encoder = new GzipEncoder(level)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            encoder.encode(ByteBuffer.wrap(body), out);
+            encoder.finish(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Compresses what the buffer holds, without releasing it. Output may be empty: the Deflater
+     * keeps data back until it has enough for a block.
+     */
+    byte[] encode(DataBuffer buffer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.readableByteCount() / 4 + 16);
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                encode(iterator.next(), out);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    byte[] finish() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        finish(out);
+        return out.toByteArray();
+    }
+
+    private void encode(ByteBuffer input, ByteArrayOutputStream out) {
+        writeHeader(out);
+        crc.update(input.duplicate());
+        deflater.setInput(input);
+        while (!deflater.needsInput()) {
+            int length = deflater.deflate(chunk, 0, chunk.length, Deflater.NO_FLUSH);
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private void finish(ByteArrayOutputStream out) {
+        writeHeader(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            out.write(chunk, 0, length);
+        }
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, (int) deflater.getBytesRead());
+    }
+
+    private void writeHeader(ByteArrayOutputStream out) {
+        if (!headerWritten) {
+            out.write(HEADER, 0, HEADER.length);
+            headerWritten = true;
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
@@ -1,25 +1,52 @@
 package com.gateway.filters; // Keep package consistent
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
     // Ensure this matches the SECRET in Auth Service
     @Value("${app.jwt.secret}")
     private String SECRET;
 
+    @Autowired(required = false)
+    private Environment environment;
+
+    // Decoding the secrets and building the parser is the expensive part, so do it once per key set
+    private volatile SigningKeys keys;
+
+    @PostConstruct
+    void init() {
+        keys = loadKeys();
+    }
+
+    // Fired by a config refresh; lets a new kid be accepted (or an old one dropped) without a restart
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("app.jwt."))) {
+            keys = loadKeys();
+            log.info("Reloaded JWT verification keys: {}", keys.kids());
+        }
+    }
 
     public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+        keys.parser().parseClaimsJws(token);
     }
 
     public String extractUsername(String token) {
@@ -31,16 +58,32 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and expiry once and returns every claim.
+     * Throws the usual jjwt exceptions when the token is not acceptable.
+     */
+    public Claims extractAllClaims(String token) {
+        return keys.parser().parseClaimsJws(token).getBody();
+    }
+
+    // Changes identity whenever the accepted keys are reloaded
+    public SigningKeys keys() {
+        return keys;
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * {@code app.jwt.secret} is the primary key ({@code app.jwt.kid}, default "primary");
+     * {@code app.jwt.keys.<kid>} adds more, e.g. the next key while AuthService rolls over to it.
+     */
+    private SigningKeys loadKeys() {
+        if (environment == null) {
+            return SigningKeys.of(SECRET, SigningKeys.DEFAULT_KID, Map.of());
+        }
+        Map<String, String> others = Binder.get(environment)
+                .bind("app.jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        return SigningKeys.of(environment.getRequiredProperty("app.jwt.secret"),
+                environment.getProperty("app.jwt.kid", SigningKeys.DEFAULT_KID),
+                others);
     }
-}
\ No newline at end of file
+}
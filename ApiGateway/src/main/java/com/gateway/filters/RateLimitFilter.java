@@ -0,0 +1,183 @@
+package com.gateway.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles expensive public auth endpoints (BCrypt logins, OTP mails) per client IP and per
+ * target email before the request is forwarded, using the limits in {@code gateway.rate-limit.rules}.
+ * The email is read from the {@code email} query parameter, or from a small JSON body (login).
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            GatewayErrorResponse.body("Too many requests. Please try again later.", "ERR_RATE_LIMITED");
+
+    // Login bodies are a few dozen bytes; never buffer anything bigger just to find an email
+    private static final long MAX_INSPECTED_BODY_BYTES = 4096;
+
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final boolean trustForwardedFor;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.objectMapper = objectMapper;
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            rules.add(new CompiledRule(rule, properties.getMaxKeys(), meterRegistry));
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            CompiledRule rule = ruleFor(request.getPath().value());
+            if (rule == null) {
+                return chain.filter(exchange);
+            }
+
+            if (rule.perIp != null) {
+                long waitNanos = rule.perIp.tryAcquire(clientIp(request));
+                if (waitNanos > 0) {
+                    rule.rejectedByIp.increment();
+                    return reject(exchange, waitNanos);
+                }
+            }
+            if (rule.perEmail == null) {
+                return chain.filter(exchange);
+            }
+
+            String email = request.getQueryParams().getFirst("email");
+            if (email != null) {
+                return limitByEmail(rule, email, exchange, chain);
+            }
+            if (!hasSmallJsonBody(request)) {
+                return chain.filter(exchange);
+            }
+            return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest -> {
+                ServerWebExchange cachedExchange = exchange.mutate().request(cachedRequest).build();
+                String bodyEmail = emailFromBody(exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR));
+                return bodyEmail != null
+                        ? limitByEmail(rule, bodyEmail, cachedExchange, chain)
+                        : chain.filter(cachedExchange);
+            });
+        };
+    }
+
+    private Mono<Void> limitByEmail(CompiledRule rule, String email, ServerWebExchange exchange, GatewayFilterChain chain) {
+        long waitNanos = rule.perEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        if (waitNanos > 0) {
+            rule.rejectedByEmail.increment();
+            return reject(exchange, waitNanos);
+        }
+        return chain.filter(exchange);
+    }
+
+    private CompiledRule ruleFor(String path) {
+        for (CompiledRule rule : rules) {
+            if (rule.paths.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                // The last hop is the one our own proxy appended; earlier hops are client-controlled
+                return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+    }
+
+    private static boolean hasSmallJsonBody(ServerHttpRequest request) {
+        long contentLength = request.getHeaders().getContentLength();
+        MediaType contentType = request.getHeaders().getContentType();
+        return contentLength > 0 && contentLength <= MAX_INSPECTED_BODY_BYTES
+                && contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+
+    private String emailFromBody(DataBuffer body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(
+                    body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8)).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (Exception e) {
+            // Unreadable body: let AuthService answer it, the IP limit still applied
+            return null;
+        }
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        exchange.getResponse().getHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+        return GatewayErrorResponse.write(exchange, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS_BODY);
+    }
+
+    private static final class CompiledRule {
+        private final RouteIndex paths;
+        private final TokenBucketLimiter perIp;
+        private final TokenBucketLimiter perEmail;
+        private final Counter rejectedByIp;
+        private final Counter rejectedByEmail;
+
+        private CompiledRule(RateLimitProperties.Rule rule, int maxKeys, MeterRegistry meterRegistry) {
+            this.paths = RouteIndex.compile(List.of(rule.getPath()));
+            this.perIp = limiter(rule.getPerIp(), maxKeys);
+            this.perEmail = limiter(rule.getPerEmail(), maxKeys);
+            this.rejectedByIp = rejectedCounter(meterRegistry, rule.getPath(), "ip");
+            this.rejectedByEmail = rejectedCounter(meterRegistry, rule.getPath(), "email");
+        }
+
+        private static TokenBucketLimiter limiter(RateLimitProperties.Limit limit, int maxKeys) {
+            return limit != null ? new TokenBucketLimiter(limit.getCapacity(), limit.getRefillPerMinute(), maxKeys) : null;
+        }
+
+        private static Counter rejectedCounter(MeterRegistry meterRegistry, String path, String key) {
+            return Counter.builder("gateway.ratelimit.rejected")
+                    .tag("path", path)
+                    .tag("key", key)
+                    .description("Requests answered with 429 by the gateway rate limiter")
+                    .register(meterRegistry);
+        }
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,345 @@
+package com.gateway.filters;
+
+import com.gateway.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves configured public GET endpoints (the signup page's college and department lists) from
+ * gateway memory, using the rules in {@code gateway.response-cache.rules}.
+ * <ul>
+ *   <li>Entries live for the rule's TTL, and are dropped as soon as a successful write to one of
+ *       the rule's {@code invalidated-by} paths passes through this filter.</li>
+ *   <li>Every cached body gets a strong ETag; a matching {@code If-None-Match} is answered with 304.</li>
+ *   <li>Concurrent misses for the same URL wait for a single downstream call instead of each
+ *       making their own.</li>
+ *   <li>Bodies worth compressing are gzipped once when cached, and gzip-capable clients get those
+ *       bytes directly instead of CompressionFilter compressing them again on every hit.</li>
+ * </ul>
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    // Handed to waiting requests when the leader's response could not be cached
+    private static final CachedResponse NONE = new CachedResponse(null, null, new byte[0], null, null, 0);
+
+    private final List<CachedRule> rules = new ArrayList<>();
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final int maxBodyBytes;
+    private final CompressionFilter compression;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, CompressionFilter compression, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.compression = compression;
+        for (ResponseCacheProperties.Rule rule : properties.getRules()) {
+            rules.add(new CachedRule(rule));
+        }
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfter(new ExpireAfterRuleTtl())
+                .build();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.notModified = counter(meterRegistry, "not_modified");
+        Gauge.builder("gateway.response.cache.size", cache, Cache::estimatedSize)
+                .description("Responses currently cached at the gateway")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().value();
+
+            if (request.getMethod() == HttpMethod.GET) {
+                CachedRule rule = cachedRuleFor(path);
+                return rule == null ? chain.filter(exchange) : serve(rule, exchange, chain);
+            }
+            if (request.getMethod() == HttpMethod.HEAD || request.getMethod() == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+
+            List<CachedRule> affected = rulesInvalidatedBy(path);
+            if (affected.isEmpty()) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    affected.forEach(this::invalidate);
+                }
+            });
+        };
+    }
+
+    private void invalidate(CachedRule rule) {
+        // Bump first so a downstream call already in flight does not store its now stale body
+        rule.generation.incrementAndGet();
+        cache.asMap().values().removeIf(cached -> cached.rule == rule);
+    }
+
+    private Mono<Void> serve(CachedRule rule, ServerWebExchange exchange, GatewayFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        String rawQuery = exchange.getRequest().getURI().getRawQuery();
+        String key = rawQuery == null ? path : path + '?' + rawQuery;
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return write(exchange, cached);
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            coalesced.increment();
+            return leader.asMono().flatMap(result -> result == NONE ? chain.filter(exchange) : write(exchange, result));
+        }
+
+        misses.increment();
+        CapturingResponse response = new CapturingResponse(exchange.getResponse(), rule, rule.generation.get(),
+                CompressionFilter.acceptsGzip(exchange.getRequest().getHeaders()));
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    CachedResponse captured = response.captured;
+                    if (captured != null && rule.generation.get() == response.generation) {
+                        cache.put(key, captured);
+                    }
+                    inFlight.remove(key, sink);
+                    sink.tryEmitValue(captured != null ? captured : NONE);
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        boolean gzip = cached.gzipBody != null && CompressionFilter.acceptsGzip(requestHeaders);
+        headers.setETag(cached.etag);
+        // Let browsers keep the body but revalidate every time, so invalidation reaches them at once
+        headers.setCacheControl("no-cache");
+        if (cached.gzipBody != null) {
+            CompressionFilter.varyOnAcceptEncoding(headers);
+        }
+
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (matchesIfNoneMatch(ifNoneMatch, cached.etag)
+                || (cached.gzipBody != null && matchesIfNoneMatch(ifNoneMatch, CompressionFilter.gzipEtag(cached.etag)))) {
+            if (gzip) {
+                headers.setETag(CompressionFilter.gzipEtag(cached.etag));
+            }
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType != null) {
+            headers.setContentType(cached.contentType);
+        }
+        byte[] body = cached.body;
+        if (gzip) {
+            // Already compressed once at capture time; CompressionFilter lets encoded bodies through as they are
+            CompressionFilter.markGzip(headers);
+            body = cached.gzipBody;
+        }
+        headers.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    // If-None-Match uses weak comparison, so W/"x" matches "x"
+    static boolean matchesIfNoneMatch(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String strongEtag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private CachedRule cachedRuleFor(String path) {
+        for (CachedRule rule : rules) {
+            if (rule.paths.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private List<CachedRule> rulesInvalidatedBy(String path) {
+        List<CachedRule> affected = List.of();
+        for (CachedRule rule : rules) {
+            if (rule.invalidatedBy.matches(path)) {
+                if (affected.isEmpty()) {
+                    affected = new ArrayList<>();
+                }
+                affected.add(rule);
+            }
+        }
+        return affected;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache")
+                .tag("result", result)
+                .description("Cacheable GET requests by how they were answered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Copies a cacheable downstream 200 into memory on its way to the client. Anything else
+     * (errors, compressed or private responses, oversized bodies) is passed through untouched.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final CachedRule rule;
+        private final long generation;
+        private final boolean acceptsGzip;
+        private volatile CachedResponse captured;
+
+        CapturingResponse(ServerHttpResponse delegate, CachedRule rule, long generation, boolean acceptsGzip) {
+            super(delegate);
+            this.rule = rule;
+            this.generation = generation;
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCacheable()) {
+                return super.writeWith(body);
+            }
+            return Flux.from(body).collectList().flatMap(buffers -> {
+                int size = 0;
+                for (DataBuffer buffer : buffers) {
+                    size += buffer.readableByteCount();
+                }
+                if (size > maxBodyBytes) {
+                    return super.writeWith(Flux.fromIterable(buffers));
+                }
+
+                byte[] bytes = new byte[size];
+                int offset = 0;
+                for (DataBuffer buffer : buffers) {
+                    int length = buffer.readableByteCount();
+                    buffer.read(bytes, offset, length);
+                    offset += length;
+                    DataBufferUtils.release(buffer);
+                }
+                String etag = strongEtag(bytes);
+                MediaType contentType = getHeaders().getContentType();
+                byte[] gzipBody = compression.precompress(contentType, bytes);
+                captured = new CachedResponse(rule, contentType, bytes, gzipBody, etag, rule.ttlNanos);
+                getHeaders().setETag(etag);
+                getHeaders().setCacheControl("no-cache");
+                if (gzipBody == null) {
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+                CompressionFilter.varyOnAcceptEncoding(getHeaders());
+                if (!acceptsGzip) {
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+                CompressionFilter.markGzip(getHeaders());
+                getHeaders().setContentLength(gzipBody.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(gzipBody)));
+            });
+        }
+
+        private boolean isCacheable() {
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            return HttpStatus.OK.equals(getStatusCode())
+                    && !headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+        }
+    }
+
+    static final class CachedRule {
+        private final RouteIndex paths;
+        private final RouteIndex invalidatedBy;
+        private final long ttlNanos;
+        private final AtomicLong generation = new AtomicLong();
+
+        CachedRule(ResponseCacheProperties.Rule rule) {
+            this.paths = RouteIndex.compile(List.of(rule.getPath()));
+            this.invalidatedBy = RouteIndex.compile(rule.getInvalidatedBy());
+            this.ttlNanos = rule.getTtl().toNanos();
+        }
+    }
+
+    // gzipBody is null when the body is too small or not a compressible type
+    private record CachedResponse(CachedRule rule, MediaType contentType, byte[] body, byte[] gzipBody,
+                                  String etag, long ttlNanos) {
+    }
+
+    private static class ExpireAfterRuleTtl implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class Config {
+    }
+}
@@ -0,0 +1,143 @@
+package com.gateway.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Segment trie of path patterns, compiled once and then only read.
+ * <ul>
+ *     <li>a literal segment matches itself exactly</li>
+ *     <li>{@code *} matches exactly one non-empty segment</li>
+ *     <li>{@code **} matches any remaining segments, including none; it must be the last segment</li>
+ * </ul>
+ * Repeated and trailing slashes are ignored. Lookups walk the path by index and never allocate.
+ */
+public final class RouteIndex {
+
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Node root;
+
+    private RouteIndex(Node root) {
+        this.root = root;
+    }
+
+    public static RouteIndex compile(Iterable<String> patterns) {
+        Builder root = new Builder();
+        for (String pattern : patterns) {
+            add(root, pattern.trim());
+        }
+        return new RouteIndex(root.build());
+    }
+
+    public boolean matches(String path) {
+        return matches(root, path, 0);
+    }
+
+    private static void add(Builder root, String pattern) {
+        if (pattern.isEmpty()) {
+            return;
+        }
+        Builder node = root;
+        String[] segments = Arrays.stream(pattern.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (MULTI_WILDCARD.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only supported as the last segment: " + pattern);
+                }
+                node.matchesRest = true;
+                return;
+            }
+            if (segment.contains(SINGLE_WILDCARD) && !SINGLE_WILDCARD.equals(segment)) {
+                throw new IllegalArgumentException("Partial wildcards are not supported: " + pattern);
+            }
+            node = SINGLE_WILDCARD.equals(segment) ? node.wildcard() : node.literal(segment);
+        }
+        node.terminal = true;
+    }
+
+    private static boolean matches(Node node, String path, int position) {
+        int length = path.length();
+        while (position < length && path.charAt(position) == '/') {
+            position++;
+        }
+        if (node.matchesRest) {
+            return true;
+        }
+        if (position == length) {
+            return node.terminal;
+        }
+
+        int segmentEnd = path.indexOf('/', position);
+        if (segmentEnd < 0) {
+            segmentEnd = length;
+        }
+        int segmentLength = segmentEnd - position;
+
+        String[] literals = node.literals;
+        for (int i = 0; i < literals.length; i++) {
+            String literal = literals[i];
+            if (literal.length() == segmentLength
+                    && path.regionMatches(position, literal, 0, segmentLength)
+                    && matches(node.literalChildren[i], path, segmentEnd)) {
+                return true;
+            }
+        }
+        return node.wildcard != null && matches(node.wildcard, path, segmentEnd);
+    }
+
+    private static final class Node {
+        private final String[] literals;
+        private final Node[] literalChildren;
+        private final Node wildcard;
+        private final boolean terminal;
+        private final boolean matchesRest;
+
+        private Node(String[] literals, Node[] literalChildren, Node wildcard, boolean terminal, boolean matchesRest) {
+            this.literals = literals;
+            this.literalChildren = literalChildren;
+            this.wildcard = wildcard;
+            this.terminal = terminal;
+            this.matchesRest = matchesRest;
+        }
+    }
+
+    // Mutable shape used only while compiling; flattened into arrays for lookups
+    private static final class Builder {
+        private final List<String> literals = new ArrayList<>();
+        private final List<Builder> literalChildren = new ArrayList<>();
+        private Builder wildcard;
+        private boolean terminal;
+        private boolean matchesRest;
+
+        private Builder literal(String segment) {
+            int index = literals.indexOf(segment);
+            if (index >= 0) {
+                return literalChildren.get(index);
+            }
+            Builder child = new Builder();
+            literals.add(segment);
+            literalChildren.add(child);
+            return child;
+        }
+
+        private Builder wildcard() {
+            if (wildcard == null) {
+                wildcard = new Builder();
+            }
+            return wildcard;
+        }
+
+        private Node build() {
+            Node[] children = new Node[literalChildren.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = literalChildren.get(i).build();
+            }
+            return new Node(literals.toArray(new String[0]), children,
+                    wildcard != null ? wildcard.build() : null, terminal, matchesRest);
+        }
+    }
+}
@@ -1,30 +1,26 @@
 package com.gateway.filters;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.function.Predicate;
+import java.util.Arrays;
 
 @Component
 public class RouteValidator {
 
-    public static final List<String> openApiEndpoints = List.of(
-            "/auth/signup",
-            "/auth/login",
-            "/auth/send-otp",
-            "/auth/forgot-password",
-            "/auth/reset-password",
-            "/auth/*",
-            "/admin/public",
-            "/eureka",
-            "/ws-notifications",
-            "notification/ws-notifications",
-            "notification/notifications"
-    );
+    // Open endpoints come from gateway.open-endpoints and are compiled once into a segment trie
+    private final RouteIndex openApiEndpoints;
 
-    public Predicate<ServerHttpRequest> isSecured =
-            request -> openApiEndpoints
-                    .stream()
-                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
-}
\ No newline at end of file
+    public RouteValidator(@Value("${gateway.open-endpoints}") String[] openApiEndpoints) {
+        this.openApiEndpoints = RouteIndex.compile(Arrays.asList(openApiEndpoints));
+    }
+
+    public boolean isSecured(ServerHttpRequest request) {
+        return isSecured(request.getPath().value());
+    }
+
+    public boolean isSecured(String path) {
+        return !openApiEndpoints.matches(path);
+    }
+}
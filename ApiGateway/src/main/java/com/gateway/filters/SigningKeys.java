@@ -0,0 +1,78 @@
+package com.gateway.filters;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The HMAC keys tokens may be signed with, by {@code kid}, decoded once, plus a parser that picks
+ * the key from each token's header. Tokens without a {@code kid} (issued before key ids existed)
+ * are checked against the primary key.
+ * <p>
+ * Immutable: a key rotation builds a new instance. AuthService has the same class for signing.
+ */
+public final class SigningKeys {
+
+    public static final String DEFAULT_KID = "primary";
+
+    private final Map<String, Key> keys;
+    private final Key primaryKey;
+    private final JwtParser parser;
+
+    private SigningKeys(Map<String, Key> keys, String primaryKid) {
+        this.keys = keys;
+        this.primaryKey = keys.get(primaryKid);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyFor(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @param primarySecret Base64 secret for {@code primaryKid}, also used for tokens without a kid
+     * @param otherSecrets  further accepted keys by kid, e.g. the next key during a rotation
+     */
+    public static SigningKeys of(String primarySecret, String primaryKid, Map<String, String> otherSecrets) {
+        Map<String, Key> keys = new LinkedHashMap<>();
+        keys.put(primaryKid, decode(primarySecret));
+        otherSecrets.forEach((kid, secret) -> keys.putIfAbsent(kid, decode(secret)));
+        return new SigningKeys(Map.copyOf(keys), primaryKid);
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    public Set<String> kids() {
+        return keys.keySet();
+    }
+
+    private Key keyFor(String kid) {
+        if (kid == null) {
+            return primaryKey;
+        }
+        Key key = keys.get(kid);
+        if (key == null) {
+            throw new SignatureException("Token signed with unknown key id " + kid);
+        }
+        return key;
+    }
+
+    private static Key decode(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+}
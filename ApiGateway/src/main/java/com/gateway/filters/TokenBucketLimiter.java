@@ -0,0 +1,111 @@
+package com.gateway.filters;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by an arbitrary string (client IP, email, ...).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its "theoretical arrival time" (the GCRA form
+ * of a token bucket): a request is allowed when advancing that time by one emission interval keeps
+ * it within {@code capacity} intervals of now. Buckets whose time has fallen behind the clock are
+ * full again and therefore indistinguishable from new ones, so a periodic sweep drops them; the
+ * maps are striped so that sweep and the per-stripe size cap only ever touch a small slice.
+ * When a stripe is full of busy buckets, unseen keys share that stripe's overflow bucket instead
+ * of growing memory.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int STRIPES = 16;
+    private static final int SWEEP_EVERY = 1024;
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeysPerStripe;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+    private final AtomicLong[] overflow = new AtomicLong[STRIPES];
+    private final AtomicInteger acquisitions = new AtomicInteger();
+
+    public TokenBucketLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerMinute must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 when allowed, otherwise how many nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        int count = acquisitions.incrementAndGet();
+        if ((count & (SWEEP_EVERY - 1)) == 0) {
+            sweep((count / SWEEP_EVERY) & (STRIPES - 1), now);
+        }
+        return take(bucketFor(key, now), now);
+    }
+
+    public int trackedKeys() {
+        int total = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        int index = stripeOf(key);
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[index];
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxKeysPerStripe) {
+            sweep(index, now);
+            if (stripe.size() >= maxKeysPerStripe) {
+                return overflow[index];
+            }
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket that has caught up with the clock is full again; forgetting it changes nothing
+    private void sweep(int index, long now) {
+        stripes[index].values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    static int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gateway.filters;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Users whose tokens issued before a given instant must no longer be accepted (status change,
+ * password change). Keyed by the token subject (email), which every token and every revocation
+ * event carry.
+ * <p>
+ * Almost every lookup is for a user who was never revoked, so a small bloom filter answers those
+ * from a few bit reads; only a bloom hit consults the exact map. Entries older than the longest
+ * token lifetime can no longer match a live token and are dropped, rebuilding the bloom filter.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int BLOOM_BITS = 1 << 16;
+    private static final int BLOOM_HASHES = 3;
+
+    private final long retentionMillis;
+    private final Map<String, Long> notBefore = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / 64);
+    private long nextSweepMillis;
+
+    public TokenRevocationList(MeterRegistry meterRegistry,
+                               @Value("${gateway.auth.revocation.retention:35m}") Duration retention) {
+        this.retentionMillis = retention.toMillis();
+        this.nextSweepMillis = System.currentTimeMillis() + retentionMillis;
+        Gauge.builder("gateway.auth.revocations", notBefore, Map::size)
+                .description("Users with a token not-before timestamp")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects every token for the subject issued before {@code revokedAtMillis}.
+     */
+    public synchronized void revoke(String subject, long revokedAtMillis) {
+        long now = System.currentTimeMillis();
+        if (now >= nextSweepMillis) {
+            sweep(now);
+        }
+        // Map first, then bloom: a reader that sees the bits will also see the entry
+        notBefore.merge(subject, revokedAtMillis, Math::max);
+        add(bloom, subject);
+    }
+
+    /**
+     * JWT {@code iat} only has second precision, so a token issued in the same second as the
+     * revocation is still accepted.
+     */
+    public boolean isRevoked(String subject, long issuedAtMillis) {
+        if (subject == null || !mightContain(bloom, subject)) {
+            return false;
+        }
+        Long revokedAt = notBefore.get(subject);
+        return revokedAt != null && issuedAtMillis < revokedAt - revokedAt % 1000;
+    }
+
+    public int size() {
+        return notBefore.size();
+    }
+
+    private void sweep(long now) {
+        notBefore.values().removeIf(revokedAt -> revokedAt < now - retentionMillis);
+        AtomicLongArray rebuilt = new AtomicLongArray(BLOOM_BITS / 64);
+        notBefore.keySet().forEach(subject -> add(rebuilt, subject));
+        bloom = rebuilt;
+        nextSweepMillis = now + retentionMillis;
+    }
+
+    private static void add(AtomicLongArray bits, String subject) {
+        long hash = mix(subject.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private static boolean mightContain(AtomicLongArray bits, String subject) {
+        // String caches its hashCode, and the token cache hands back the same String every time
+        long hash = mix(subject.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MurmurHash3 fmix64, spreads the 32-bit String hash over 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
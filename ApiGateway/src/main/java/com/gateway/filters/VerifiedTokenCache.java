@@ -0,0 +1,169 @@
+package com.gateway.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers tokens whose signature has already been verified, so a client sending the same
+ * JWT on every call pays for HMAC verification and claim parsing only once per token.
+ * Entries are keyed by a SHA-256 digest of the raw token and are kept for a short while past
+ * the token's {@code exp}, so a client retrying with a stale token is answered from memory
+ * instead of making jjwt build an exception every time. Callers must check
+ * {@link VerifiedToken#isExpired(long)} on every result.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    // How long an expired token is still recognised as "expired" rather than re-parsed
+    private static final long EXPIRED_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final JwtUtil jwtUtil;
+    private final Cache<TokenDigest, VerifiedToken> cache;
+    private final Counter hits;
+    private final Counter misses;
+    // Key set the cached entries were verified with
+    private volatile SigningKeys verifiedWith;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${gateway.auth.token-cache.max-size:10000}") long maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .build();
+        this.hits = Counter.builder("gateway.auth.token.cache")
+                .tag("result", "hit")
+                .description("Secured requests served from already verified tokens")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gateway.auth.token.cache")
+                .tag("result", "miss")
+                .description("Secured requests that needed a full signature verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the verified identity carried by the token, parsing it only on a cache miss.
+     * Expired tokens with a valid signature are returned too, so check {@link VerifiedToken#isExpired(long)}.
+     * Other jjwt exceptions (bad signature, malformed) propagate to the caller.
+     */
+    public VerifiedToken verify(String token) {
+        SigningKeys keys = jwtUtil.keys();
+        if (keys != verifiedWith) {
+            // A retired kid must stop working at once, not when its tokens would have expired
+            cache.invalidateAll();
+            verifiedWith = keys;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        VerifiedToken verified;
+        try {
+            verified = VerifiedToken.from(jwtUtil.extractAllClaims(token));
+        } catch (ExpiredJwtException e) {
+            // jjwt checks exp only after the signature, so these claims are authentic
+            verified = VerifiedToken.from(e.getClaims());
+        }
+        if (verified.expiresAtMillis() > 0) {
+            cache.put(digest, verified);
+        }
+        return verified;
+    }
+
+    public long hitCount() {
+        return (long) hits.count();
+    }
+
+    public long missCount() {
+        return (long) misses.count();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * The identity the gateway forwards downstream, taken from an already verified token.
+     */
+    public record VerifiedToken(String email, String role, String userId, String collegeId, String departmentId,
+                                long issuedAtMillis, long expiresAtMillis) {
+
+        static VerifiedToken from(Claims claims) {
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    asString(claims.get("role")),
+                    // AuthService writes the ids as numbers, so never ask jjwt for them as Strings
+                    asString(claims.get("userId")),
+                    asString(claims.get("collegeId")),
+                    asString(claims.get("departmentId")),
+                    issuedAt != null ? issuedAt.getTime() : 0L,
+                    expiration != null ? expiration.getTime() : 0L);
+        }
+
+        private static String asString(Object claim) {
+            return claim != null ? claim.toString() : null;
+        }
+
+        public boolean isExpired(long nowMillis) {
+            return expiresAtMillis > 0 && nowMillis >= expiresAtMillis;
+        }
+    }
+
+    // First 128 bits of SHA-256: collision-safe as a cache key and cheaper to hash than a String
+    private record TokenDigest(long high, long low) {
+
+        static TokenDigest of(String token) {
+            byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new TokenDigest(buffer.getLong(), buffer.getLong());
+        }
+    }
+
+    private static class ExpireAtTokenExpiry implements Expiry<TokenDigest, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() + EXPIRED_RETENTION_MILLIS - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
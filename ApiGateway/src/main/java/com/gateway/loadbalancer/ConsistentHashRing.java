@@ -0,0 +1,80 @@
+package com.gateway.loadbalancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent-hash ring over node ids, with virtual nodes so load stays even with few instances.
+ * <p>
+ * NotificationService builds the same ring from the same Eureka instance ids to decide which node
+ * pushes a user's notifications, so the hash and the virtual node count must stay identical in
+ * both copies of this class.
+ */
+public final class ConsistentHashRing {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private final List<String> nodeIds;
+    private final long[] points;
+    private final String[] owners;
+
+    private ConsistentHashRing(List<String> nodeIds) {
+        this.nodeIds = List.copyOf(nodeIds);
+        int size = nodeIds.size() * VIRTUAL_NODES;
+        long[][] entries = new long[size][2];
+        int i = 0;
+        for (int node = 0; node < nodeIds.size(); node++) {
+            for (int replica = 0; replica < VIRTUAL_NODES; replica++) {
+                entries[i][0] = hash(nodeIds.get(node) + '#' + replica);
+                entries[i][1] = node;
+                i++;
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = nodeIds.get((int) entries[i][1]);
+        }
+    }
+
+    public static ConsistentHashRing of(List<String> nodeIds) {
+        return new ConsistentHashRing(nodeIds);
+    }
+
+    public List<String> nodeIds() {
+        return nodeIds;
+    }
+
+    /**
+     * @return the node owning {@code key}, or null when the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // Past the last point wraps around to the first
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a over UTF-8, then the MurmurHash3 finalizer so short ids spread over the whole ring
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,145 @@
+package com.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Peak-EWMA latency and in-flight count for every backend instance the gateway routes to.
+ * <p>
+ * The latency average jumps straight up to any slower sample and decays back down with a time
+ * constant, so one slow instance is avoided quickly and retried only once it has been quiet for a
+ * while. An instance's cost is that average times (in-flight + 1): the expected wait for one more
+ * request. Cost, latency and in-flight are published per instance.
+ */
+@Component
+public class InstanceLoadTracker {
+
+    private final MeterRegistry meterRegistry;
+    private final double decayNanos;
+    private final long defaultRttNanos;
+    private final Map<String, Map<String, InstanceLoad>> services = new ConcurrentHashMap<>();
+    private final Map<String, List<ServiceInstance>> lastSeen = new ConcurrentHashMap<>();
+
+    public InstanceLoadTracker(MeterRegistry meterRegistry,
+                               @Value("${gateway.loadbalancer.decay-time:10s}") Duration decayTime,
+                               @Value("${gateway.loadbalancer.default-rtt:30ms}") Duration defaultRtt) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decayTime.toNanos();
+        this.defaultRttNanos = defaultRtt.toNanos();
+    }
+
+    public InstanceLoad loadOf(ServiceInstance instance) {
+        return services.computeIfAbsent(instance.getServiceId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(instanceKey(instance), key -> register(instance, key));
+    }
+
+    /**
+     * Drops the stats (and gauges) of instances that left discovery. The supplier hands back the
+     * same list object until the registry changes, so this is a reference check on the hot path.
+     */
+    void retain(String serviceId, List<ServiceInstance> instances) {
+        if (lastSeen.put(serviceId, instances) == instances || instances.isEmpty()) {
+            return;
+        }
+        // Stats are keyed by the instances' own service id, whatever case discovery reports it in
+        Map<String, InstanceLoad> loads = services.get(instances.get(0).getServiceId());
+        if (loads == null) {
+            return;
+        }
+        Set<String> live = new HashSet<>();
+        instances.forEach(instance -> live.add(instanceKey(instance)));
+        loads.entrySet().removeIf(entry -> {
+            if (live.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().meters.forEach(meterRegistry::remove);
+            return true;
+        });
+    }
+
+    private InstanceLoad register(ServiceInstance instance, String key) {
+        InstanceLoad load = new InstanceLoad(decayNanos, defaultRttNanos, System.nanoTime());
+        Tags tags = Tags.of("service", instance.getServiceId(), "instance", key);
+        load.meters = List.of(
+                Gauge.builder("gateway.loadbalancer.instance.cost", load, l -> l.cost(System.nanoTime()) / 1e6)
+                        .tags(tags)
+                        .description("Peak-EWMA latency x (in-flight + 1), in ms; lower is preferred")
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.instance.latency", load, l -> l.latencyNanos(System.nanoTime()) / 1e6)
+                        .tags(tags)
+                        .description("Peak-EWMA response latency in ms")
+                        .register(meterRegistry),
+                Gauge.builder("gateway.loadbalancer.instance.inflight", load, l -> l.inFlight.get())
+                        .tags(tags)
+                        .description("Requests sent to the instance and not yet completed")
+                        .register(meterRegistry));
+        return load;
+    }
+
+    private static String instanceKey(ServiceInstance instance) {
+        String id = instance.getInstanceId();
+        return id != null ? id : instance.getHost() + ":" + instance.getPort();
+    }
+
+    public static final class InstanceLoad {
+
+        private final double decayNanos;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private List<Meter> meters = List.of();
+
+        // guarded by this
+        private double ewmaNanos;
+        private long stampNanos;
+
+        InstanceLoad(double decayNanos, long initialRttNanos, long now) {
+            this.decayNanos = decayNanos;
+            this.ewmaNanos = initialRttNanos;
+            this.stampNanos = now;
+        }
+
+        public void started() {
+            inFlight.incrementAndGet();
+        }
+
+        public void finished() {
+            inFlight.decrementAndGet();
+        }
+
+        public synchronized void observe(long rttNanos, long now) {
+            if (rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-Math.max(now - stampNanos, 0) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            stampNanos = Math.max(stampNanos, now);
+        }
+
+        public double cost(long now) {
+            return latencyNanos(now) * (inFlight.get() + 1);
+        }
+
+        synchronized double latencyNanos(long now) {
+            return decayedEwma(now);
+        }
+
+        // Idle instances drift back toward zero so they get probed again
+        private double decayedEwma(long now) {
+            long elapsed = now - stampNanos;
+            return elapsed <= 0 ? ewmaNanos : ewmaNanos * Math.exp(-elapsed / decayNanos);
+        }
+    }
+}
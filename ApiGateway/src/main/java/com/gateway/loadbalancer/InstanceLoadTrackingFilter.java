@@ -0,0 +1,104 @@
+package com.gateway.loadbalancer;
+
+import com.gateway.metrics.GatewayStage;
+import com.gateway.metrics.LoadBalancerStageFilter;
+import com.gateway.metrics.StageTimers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Feeds {@link InstanceLoadTracker} from the requests the gateway proxies. Runs right after the
+ * load balancer picked an instance; latency is taken when the downstream response headers are
+ * committed, so slow body streaming does not count against the instance.
+ * <p>
+ * This is a filter rather than a LoadBalancerLifecycle because the lifecycle gets no callback
+ * when the client cancels, which would leak in-flight counts.
+ */
+@Component
+public class InstanceLoadTrackingFilter implements GlobalFilter, Ordered {
+
+    // A failed call should make the instance look slow, not fast
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private InstanceLoadTracker tracker;
+
+    @Autowired
+    private StageTimers stageTimers;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Long lbStart = exchange.getAttribute(LoadBalancerStageFilter.START_ATTRIBUTE);
+        if (lbStart != null) {
+            stageTimers.record(exchange, GatewayStage.LOAD_BALANCER, System.nanoTime() - lbStart);
+        }
+
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        // Long-lived WebSocket sessions would read as huge latencies
+        if (chosen == null || !chosen.hasServer() || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+
+        TrackedCall call = new TrackedCall(tracker.loadOf(chosen.getServer()), exchange);
+        exchange.getResponse().beforeCommit(call::committed);
+        return chain.filter(exchange).doFinally(call);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    // One per proxied request; the flag makes sure the latency sample is taken once
+    private final class TrackedCall implements Consumer<SignalType> {
+
+        private final InstanceLoadTracker.InstanceLoad load;
+        private final ServerWebExchange exchange;
+        private final long startNanos;
+        private final AtomicBoolean observed = new AtomicBoolean();
+
+        TrackedCall(InstanceLoadTracker.InstanceLoad load, ServerWebExchange exchange) {
+            this.load = load;
+            this.exchange = exchange;
+            this.startNanos = System.nanoTime();
+            load.started();
+        }
+
+        // Response headers are about to be written
+        Mono<Void> committed() {
+            long rttNanos = System.nanoTime() - startNanos;
+            observe(rttNanos);
+            stageTimers.record(exchange, GatewayStage.DOWNSTREAM, rttNanos);
+            return Mono.empty();
+        }
+
+        @Override
+        public void accept(SignalType signal) {
+            if (signal == SignalType.ON_ERROR) {
+                observe(Math.max(System.nanoTime() - startNanos, FAILURE_PENALTY_NANOS));
+            }
+            load.finished();
+        }
+
+        private void observe(long rttNanos) {
+            if (observed.compareAndSet(false, true)) {
+                load.observe(rttNanos, System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices over peak-EWMA cost: sample two distinct instances at random and send the
+ * request to the cheaper one. Unlike always taking the global minimum, this never herds every
+ * gateway thread onto the same instance between stat updates.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final InstanceLoadTracker tracker;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                String serviceId,
+                                InstanceLoadTracker tracker) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        tracker.retain(serviceId, instances);
+        int size = instances.size();
+        if (size == 0) {
+            return new EmptyResponse();
+        }
+        if (size == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = System.nanoTime();
+        return new DefaultResponse(tracker.loadOf(a).cost(now) <= tracker.loadOf(b).cost(now) ? a : b);
+    }
+}
@@ -0,0 +1,23 @@
+package com.gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Deliberately not a @Configuration: @LoadBalancerClients builds it once per service, in that service's child context
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+                                                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                     InstanceLoadTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                tracker);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gateway.loadbalancer;
+
+import com.gateway.filters.RouteIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends every request matching {@code stickyPaths} (a {@link RouteIndex}, same segment rules as the
+ * open endpoints) that carries a {@code userId} query parameter to the instance owning that user on a
+ * {@link ConsistentHashRing}; everything else goes to the peak-EWMA balancer. Used for the notification
+ * WebSocket handshake, so a user's STOMP sessions and reconnects land on one instance.
+ */
+public class UserAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    static final String USER_ID_PARAM = "userId";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final ReactorServiceInstanceLoadBalancer fallback;
+    private final RouteIndex stickyPaths;
+    private volatile Ring ring = new Ring(List.of(), ConsistentHashRing.of(List.of()), Map.of());
+
+    public UserAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                    ReactorServiceInstanceLoadBalancer fallback,
+                                    RouteIndex stickyPaths) {
+        this.suppliers = suppliers;
+        this.fallback = fallback;
+        this.stickyPaths = stickyPaths;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        String userId = stickyKey(request);
+        if (userId == null) {
+            return fallback.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, userId);
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances, String userId) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        ServiceInstance owner = ringFor(instances).ownerOf(userId);
+        return owner == null ? new EmptyResponse() : new DefaultResponse(owner);
+    }
+
+    private String stickyKey(Request<?> request) {
+        if (!(request.getContext() instanceof RequestDataContext context)) {
+            return null;
+        }
+        RequestData data = context.getClientRequest();
+        return data == null ? null : stickyKey(data.getUrl());
+    }
+
+    String stickyKey(URI url) {
+        if (url == null || url.getRawPath() == null || !stickyPaths.matches(url.getRawPath())) {
+            return null;
+        }
+        return queryParam(url.getRawQuery(), USER_ID_PARAM);
+    }
+
+    static String queryParam(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        int start = 0;
+        while (start <= rawQuery.length()) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = rawQuery.length();
+            }
+            if (rawQuery.startsWith(name, start) && start + name.length() < end && rawQuery.charAt(start + name.length()) == '=') {
+                return rawQuery.substring(start + name.length() + 1, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    // The cached instance supplier hands back the same list until Eureka reports a change
+    private Ring ringFor(List<ServiceInstance> instances) {
+        Ring current = ring;
+        if (current.instances == instances) {
+            return current;
+        }
+        List<String> ids = new ArrayList<>(instances.size());
+        Map<String, ServiceInstance> byId = new HashMap<>();
+        for (ServiceInstance instance : instances) {
+            ids.add(instance.getInstanceId());
+            byId.put(instance.getInstanceId(), instance);
+        }
+        ConsistentHashRing hashRing = current.hashRing.nodeIds().equals(ids) ? current.hashRing : ConsistentHashRing.of(ids);
+        Ring updated = new Ring(instances, hashRing, byId);
+        ring = updated;
+        return updated;
+    }
+
+    private record Ring(List<ServiceInstance> instances, ConsistentHashRing hashRing, Map<String, ServiceInstance> byId) {
+
+        ServiceInstance ownerOf(String userId) {
+            String owner = hashRing.ownerOf(userId);
+            return owner == null ? null : byId.get(owner);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.gateway.loadbalancer;
+
+import com.gateway.filters.RouteIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.Arrays;
+
+// Not a @Configuration either; @Primary wins over the default peak-EWMA bean registered in the same child context
+public class UserAffinityLoadBalancerConfiguration {
+
+    @Bean
+    @Primary
+    public ReactorLoadBalancer<ServiceInstance> userAffinityLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceLoadTracker tracker,
+                                                                         @Value("${gateway.loadbalancer.user-affinity.paths:/notification/ws-notifications/**,/ws-notifications/**}") String[] stickyPaths) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new UserAffinityLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                new PeakEwmaLoadBalancer(
+                        loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                        serviceId,
+                        tracker),
+                RouteIndex.compile(Arrays.asList(stickyPaths)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.gateway.metrics;
+
+import java.time.Duration;
+
+/**
+ * The parts of a proxied request that get their own timer, and the histogram range each one
+ * is expected to fall in.
+ */
+public enum GatewayStage {
+
+    ROUTE_MATCH("route_match", Duration.ofNanos(100), Duration.ofMillis(10)),
+    JWT_VERIFY("jwt_verify", Duration.ofNanos(100), Duration.ofMillis(100)),
+    LOAD_BALANCER("load_balancer", Duration.ofNanos(500), Duration.ofMillis(100)),
+    DOWNSTREAM("downstream", Duration.ofMillis(1), Duration.ofSeconds(30));
+
+    private final String tag;
+    private final Duration minExpected;
+    private final Duration maxExpected;
+
+    GatewayStage(String tag, Duration minExpected, Duration maxExpected) {
+        this.tag = tag;
+        this.minExpected = minExpected;
+        this.maxExpected = maxExpected;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    Duration minExpected() {
+        return minExpected;
+    }
+
+    Duration maxExpected() {
+        return maxExpected;
+    }
+}
@@ -0,0 +1,30 @@
+package com.gateway.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stamps the moment a request reaches the load balancer; InstanceLoadTrackingFilter, right after
+ * it, turns that into the {@link GatewayStage#LOAD_BALANCER} time.
+ */
+@Component
+public class LoadBalancerStageFilter implements GlobalFilter, Ordered {
+
+    public static final String START_ATTRIBUTE = LoadBalancerStageFilter.class.getName() + ".start";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(START_ATTRIBUTE, System.nanoTime());
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gateway.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds a {@code Server-Timing} header with the per-stage durations when the request carries the
+ * opt-in debug header. Requests without it pay for one header lookup.
+ */
+@Component
+public class ServerTimingFilter implements GlobalFilter, Ordered {
+
+    private final String debugHeader;
+
+    public ServerTimingFilter(@Value("${gateway.timing.debug-header:X-Debug-Timing}") String debugHeader) {
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!exchange.getRequest().getHeaders().containsKey(debugHeader)) {
+            return chain.filter(exchange);
+        }
+        ServerTimings timings = new ServerTimings();
+        exchange.getAttributes().put(ServerTimings.ATTRIBUTE, timings);
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set("Server-Timing", timings.header());
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
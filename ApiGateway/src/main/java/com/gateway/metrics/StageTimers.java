@@ -0,0 +1,57 @@
+package com.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * {@code gateway.request.stage} timers (with percentile histograms) per route id and stage.
+ * Timers are resolved once per route, so recording a stage is an array read and a timer update.
+ */
+@Component
+public class StageTimers {
+
+    private static final String UNROUTED = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer[]> timersByRoute = new ConcurrentHashMap<>();
+
+    public StageTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(ServerWebExchange exchange, GatewayStage stage, long nanos) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : UNROUTED;
+        timersByRoute.computeIfAbsent(routeId, this::register)[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+
+        ServerTimings timings = exchange.getAttribute(ServerTimings.ATTRIBUTE);
+        if (timings != null) {
+            timings.add(stage, nanos);
+        }
+    }
+
+    private Timer[] register(String routeId) {
+        GatewayStage[] stages = GatewayStage.values();
+        Timer[] timers = new Timer[stages.length];
+        for (GatewayStage stage : stages) {
+            timers[stage.ordinal()] = Timer.builder("gateway.request.stage")
+                    .tag("route", routeId)
+                    .tag("stage", stage.tag())
+                    .description("Time spent in one stage of a gateway request")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(stage.minExpected())
+                    .maximumExpectedValue(stage.maxExpected())
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+}
@@ -0,0 +1,55 @@
+package com.gateway.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void refusesOnceTheLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertEquals(1, limiter.tryAcquire());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(-1, limiter.tryAcquire());
+
+        limiter.releaseWithoutSample();
+        assertEquals(2, limiter.tryAcquire());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHoldsAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, limiter.limit());
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 20, "limit should grow under steady latency, was " + grown);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, limiter.limit());
+        }
+        assertTrue(limiter.limit() < grown / 2, "limit should back off when latency rises, was " + limiter.limit());
+    }
+
+    @Test
+    void idleRoutesDoNotInflateTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, 1);
+        }
+        assertEquals(20, limiter.limit());
+    }
+}
@@ -0,0 +1,162 @@
+package com.gateway.filters;
+
+import com.gateway.metrics.StageTimers;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthenticationFilterTests {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMhIQ==";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TokenRevocationList revocations;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET", SECRET);
+        jwtUtil.init();
+
+        revocations = new TokenRevocationList(registry, Duration.ofMinutes(35));
+
+        AuthenticationFilter factory = new AuthenticationFilter();
+        ReflectionTestUtils.setField(factory, "validator", new RouteValidator(new String[]{"/auth/login"}));
+        ReflectionTestUtils.setField(factory, "tokenCache", new VerifiedTokenCache(jwtUtil, registry, 100));
+        ReflectionTestUtils.setField(factory, "revocations", revocations);
+        ReflectionTestUtils.setField(factory, "meterRegistry", registry);
+        ReflectionTestUtils.setField(factory, "stageTimers", new StageTimers(registry));
+        ReflectionTestUtils.setField(factory, "gatewaySecret", "secret");
+        factory.init();
+        filter = factory.apply(new AuthenticationFilter.Config());
+    }
+
+    @Test
+    void validTokenReachesDownstream() {
+        AtomicBoolean forwarded = new AtomicBoolean();
+        MockServerWebExchange exchange = secured("Bearer " + token(60_000));
+
+        filter.filter(exchange, e -> {
+            forwarded.set(true);
+            assertEquals("student@uit.ac.in", e.getRequest().getHeaders().getFirst("loggedInUserEmail"));
+            assertEquals("3", e.getRequest().getHeaders().getFirst("loggedInUserCollegeId"));
+            assertEquals("7", e.getRequest().getHeaders().getFirst("loggedInUserDepartmentId"));
+            return Mono.empty();
+        }).block();
+
+        assertTrue(forwarded.get());
+    }
+
+    @Test
+    void clientSuppliedIdentityHeadersAreDropped() {
+        MockServerWebExchange open = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login")
+                .header("loggedInUserRole", "SUPER_ADMIN")
+                .header("loggedInUserDepartmentId", "1"));
+        filter.filter(open, e -> {
+            assertNull(e.getRequest().getHeaders().getFirst("loggedInUserRole"));
+            assertNull(e.getRequest().getHeaders().getFirst("loggedInUserDepartmentId"));
+            return Mono.empty();
+        }).block();
+
+        // A SUPER_ADMIN token has no department claim; a hand-written header must not fill the gap
+        MockServerWebExchange secured = MockServerWebExchange.from(MockServerHttpRequest.get("/admin/departments/7/hod")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(60_000, null))
+                .header("loggedInUserDepartmentId", "1"));
+        filter.filter(secured, e -> {
+            assertEquals("student@uit.ac.in", e.getRequest().getHeaders().getFirst("loggedInUserEmail"));
+            assertNull(e.getRequest().getHeaders().getFirst("loggedInUserDepartmentId"));
+            return Mono.empty();
+        }).block();
+    }
+
+    @Test
+    void rejectionsAreAnsweredWith401AndCountedByReason() {
+        String valid = token(60_000);
+        int signature = valid.lastIndexOf('.') + 1;
+        char flipped = valid.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = valid.substring(0, signature) + flipped + valid.substring(signature + 1);
+
+        assertRejected(secured(null), AuthFailureReason.MISSING);
+        assertRejected(secured("Bearer not-a-jwt"), AuthFailureReason.MALFORMED);
+        assertRejected(secured("Bearer " + token(-60_000)), AuthFailureReason.EXPIRED);
+        assertRejected(secured("Bearer " + tampered), AuthFailureReason.BAD_SIGNATURE);
+    }
+
+    @Test
+    void tokensIssuedBeforeRevocationAreRejected() {
+        String issuedBefore = token(60_000);
+        revocations.revoke("student@uit.ac.in", System.currentTimeMillis() - 1_000);
+
+        assertRejected(secured("Bearer " + issuedBefore), AuthFailureReason.REVOKED);
+        assertFalse(revocations.isRevoked("student@uit.ac.in", System.currentTimeMillis()));
+        assertFalse(revocations.isRevoked("other@uit.ac.in", 0));
+    }
+
+    @Test
+    void compactJwsShapeCheck() {
+        assertTrue(AuthenticationFilter.isCompactJws("aGVh.cGF5_bG9h-ZA.c2ln"));
+        assertFalse(AuthenticationFilter.isCompactJws("a.b"));
+        assertFalse(AuthenticationFilter.isCompactJws("a..c"));
+        assertFalse(AuthenticationFilter.isCompactJws("a.b.c.d"));
+        assertFalse(AuthenticationFilter.isCompactJws("a.b.c="));
+    }
+
+    private void assertRejected(MockServerWebExchange exchange, AuthFailureReason reason) {
+        filter.filter(exchange, e -> Mono.error(new AssertionError("request should not be forwarded"))).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains(errorCode(reason)));
+        assertEquals(1.0, registry.get("gateway.auth.rejected").tag("reason", reason.tag()).counter().count());
+    }
+
+    private static String errorCode(AuthFailureReason reason) {
+        return new String(reason.body()).replaceAll(".*\"errorCode\":\"([A-Z_]+)\".*", "$1");
+    }
+
+    private static MockServerWebExchange secured(String authorization) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/admin/departments/7/hod");
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String token(long expiresInMillis) {
+        return token(expiresInMillis, 7L);
+    }
+
+    private static String token(long expiresInMillis, Long departmentId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("role", "STUDENT")
+                .claim("userId", 42L)
+                .claim("collegeId", 3L)
+                .claim("departmentId", departmentId)
+                .setSubject("student@uit.ac.in")
+                .setIssuedAt(new Date(now - 120_000))
+                .setExpiration(new Date(now + expiresInMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,94 @@
+package com.gateway.filters;
+
+import com.gateway.config.CompressionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionFilterTests {
+
+    private final CompressionFilter filter = new CompressionFilter(new CompressionProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void chunkedBodyPastTheThresholdIsStreamedAsGzip() throws Exception {
+        String chunk = "{\"id\":1,\"title\":\"Approval\",\"metadata\":\"" + "x".repeat(300) + "\"},";
+        MockServerWebExchange exchange = exchange("gzip");
+        filter.filter(exchange, downstream(chunk, 20)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals(chunk.repeat(20), gunzip(body(exchange)));
+    }
+
+    @Test
+    void bodyEndingBelowTheThresholdIsSentAsIs() {
+        MockServerWebExchange exchange = exchange("gzip");
+        filter.filter(exchange, downstream("{\"ok\":true}", 3)).block();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"ok\":true}".repeat(3), exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void negotiatesOnAcceptEncoding() {
+        assertTrue(CompressionFilter.acceptsGzip(headers("gzip, deflate, br")));
+        assertTrue(CompressionFilter.acceptsGzip(headers("br;q=1.0, gzip;q=0.8")));
+        assertTrue(CompressionFilter.acceptsGzip(headers("*")));
+        assertFalse(CompressionFilter.acceptsGzip(headers("gzip;q=0")));
+        assertFalse(CompressionFilter.acceptsGzip(headers("br, identity")));
+        assertFalse(CompressionFilter.acceptsGzip(new HttpHeaders()));
+    }
+
+    private static GatewayFilterChain downstream(String chunk, int chunks) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Flux.range(0, chunks)
+                    .map(i -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/notification/notifications")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static HttpHeaders headers(String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return headers;
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        return DataBufferUtils.join(exchange.getResponse().getBody()).map(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        }).block();
+    }
+
+    private static String gunzip(byte[] gzipped) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.gateway.filters;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTests {
+
+    private static final String PRIMARY = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMhIQ==";
+    private static final String NEXT = "bmV4dC1rZXktZm9yLXJvdGF0aW9uLXRlc3RzLW9ubHktMzItYnl0ZXMhIQ==";
+
+    private final Map<String, Object> properties = new HashMap<>(Map.of(
+            "app.jwt.secret", PRIMARY,
+            "app.jwt.keys.next", NEXT));
+    private final JwtUtil jwtUtil = jwtUtil(properties);
+
+    @Test
+    void acceptsEveryConfiguredKidAndTokensWithoutOne() {
+        assertEquals("a@uit.ac.in", jwtUtil.extractUsername(token("a@uit.ac.in", null, PRIMARY)));
+        assertEquals("b@uit.ac.in", jwtUtil.extractUsername(token("b@uit.ac.in", "primary", PRIMARY)));
+        assertEquals("c@uit.ac.in", jwtUtil.extractUsername(token("c@uit.ac.in", "next", NEXT)));
+        assertThrows(SignatureException.class, () -> jwtUtil.validateToken(token("d@uit.ac.in", "retired", NEXT)));
+    }
+
+    @Test
+    void droppingAKidOnRefreshAlsoDropsItsCachedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(), 100);
+        String token = token("c@uit.ac.in", "next", NEXT);
+        cache.verify(token);
+
+        properties.remove("app.jwt.keys.next");
+        jwtUtil.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("app.jwt.keys.next")));
+
+        assertThrows(SignatureException.class, () -> cache.verify(token));
+    }
+
+    private static JwtUtil jwtUtil(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "environment", environment);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static String token(String email, String kid, String secret) {
+        var builder = Jwts.builder();
+        if (kid != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, kid);
+        }
+        return builder.setSubject(email)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,123 @@
+package com.gateway.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule login = rule("/auth/login", limit(100, 100), limit(2, 1));
+        RateLimitProperties.Rule otp = rule("/auth/send-otp", limit(1, 2), null);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(login, otp));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), registry).apply(new RateLimitFilter.Config());
+    }
+
+    @Test
+    void limitsByEmailFromTheJsonBody() {
+        assertForwarded(login("10.0.0.1", "{\"email\":\"Student@uit.ac.in\",\"password\":\"x\"}"));
+        assertForwarded(login("10.0.0.2", "{\"email\":\"student@uit.ac.in\",\"password\":\"x\"}"));
+
+        // Same email from a third IP: the per-email bucket is empty, whatever the casing
+        MockServerWebExchange third = login("10.0.0.3", "{\"email\":\" STUDENT@uit.ac.in\",\"password\":\"x\"}");
+        assertRejected(third);
+        assertEquals("60", third.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(1.0, registry.get("gateway.ratelimit.rejected").tag("path", "/auth/login").tag("key", "email").counter().count());
+
+        assertForwarded(login("10.0.0.3", "{\"email\":\"other@uit.ac.in\",\"password\":\"x\"}"));
+    }
+
+    @Test
+    void limitsByEmailFromTheQueryString() {
+        assertForwarded(exchange(MockServerHttpRequest.post("/auth/login?email=a@uit.ac.in"), "10.0.0.1"));
+        assertForwarded(exchange(MockServerHttpRequest.post("/auth/login?email=a@uit.ac.in"), "10.0.0.2"));
+        assertRejected(exchange(MockServerHttpRequest.post("/auth/login?email=a@uit.ac.in"), "10.0.0.3"));
+    }
+
+    @Test
+    void limitsByIpWithRetryAfterRoundedUp() {
+        assertForwarded(exchange(MockServerHttpRequest.post("/auth/send-otp?email=a@uit.ac.in"), "10.0.0.1"));
+
+        MockServerWebExchange second = exchange(MockServerHttpRequest.post("/auth/send-otp?email=b@uit.ac.in"), "10.0.0.1");
+        assertRejected(second);
+        // 2/minute: the next token is up to 30s away
+        long retryAfter = Long.parseLong(second.getResponse().getHeaders().getFirst("Retry-After"));
+        assertTrue(retryAfter >= 29 && retryAfter <= 30, "Retry-After was " + retryAfter);
+        assertTrue(second.getResponse().getBodyAsString().block().contains("ERR_RATE_LIMITED"));
+        assertEquals(1.0, registry.get("gateway.ratelimit.rejected").tag("path", "/auth/send-otp").tag("key", "ip").counter().count());
+
+        assertForwarded(exchange(MockServerHttpRequest.post("/auth/send-otp?email=a@uit.ac.in"), "10.0.0.2"));
+    }
+
+    @Test
+    void unlimitedPathsAndUnreadableBodiesPassThrough() {
+        for (int i = 0; i < 5; i++) {
+            assertForwarded(exchange(MockServerHttpRequest.get("/admin/public/departments"), "10.0.0.1"));
+            assertForwarded(login("10.0.0.9", "not json"));
+        }
+    }
+
+    private void assertForwarded(MockServerWebExchange exchange) {
+        boolean[] forwarded = {false};
+        filter.filter(exchange, e -> {
+            forwarded[0] = true;
+            return Mono.empty();
+        }).block();
+        assertTrue(forwarded[0], "request should be forwarded");
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    private void assertRejected(MockServerWebExchange exchange) {
+        filter.filter(exchange, e -> Mono.error(new AssertionError("request should not be forwarded"))).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange login(String ip, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login")
+                .remoteAddress(new InetSocketAddress(ip, 40000))
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(json));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, String ip) {
+        return MockServerWebExchange.from(request.remoteAddress(new InetSocketAddress(ip, 40000)));
+    }
+
+    private static RateLimitProperties.Rule rule(String path, RateLimitProperties.Limit perIp, RateLimitProperties.Limit perEmail) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPath(path);
+        rule.setPerIp(perIp);
+        rule.setPerEmail(perEmail);
+        return rule;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, int refillPerMinute) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerMinute(refillPerMinute);
+        return limit;
+    }
+}
@@ -0,0 +1,150 @@
+package com.gateway.filters;
+
+import com.gateway.config.CompressionProperties;
+import com.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheFilterTests {
+
+    private static final String COLLEGES = "{\"success\":true,\"data\":[{\"id\":1,\"name\":\"UIT\"}]}";
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final GatewayFilter filter = new ResponseCacheFilter(properties(), compression(), new SimpleMeterRegistry())
+            .apply(new ResponseCacheFilter.Config());
+
+    @Test
+    void secondGetIsServedFromCacheWithTheSameEtag() {
+        MockServerWebExchange first = get();
+        filter.filter(first, downstream(COLLEGES)).block();
+        MockServerWebExchange second = get();
+        filter.filter(second, downstream("changed")).block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(COLLEGES, second.getResponse().getBodyAsString().block());
+        assertNotNull(first.getResponse().getHeaders().getETag());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304() {
+        MockServerWebExchange first = get();
+        filter.filter(first, downstream(COLLEGES)).block();
+        String etag = first.getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/admin/public/colleges").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag));
+        filter.filter(revalidation, downstream(COLLEGES)).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void successfulAddInvalidatesTheCachedList() {
+        filter.filter(get(), downstream(COLLEGES)).block();
+        MockServerWebExchange add = MockServerWebExchange.from(MockServerHttpRequest.post("/admin/add-college"));
+        filter.filter(add, exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+            return exchange.getResponse().setComplete();
+        }).block();
+
+        MockServerWebExchange after = get();
+        filter.filter(after, downstream("{\"fresh\":true}")).block();
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals("{\"fresh\":true}", after.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void concurrentMissesShareOneDownstreamCall() {
+        Sinks.Empty<Void> release = Sinks.empty();
+        GatewayFilterChain slow = exchange -> release.asMono().then(downstream(COLLEGES).filter(exchange));
+
+        MockServerWebExchange leader = get();
+        MockServerWebExchange follower = get();
+        Mono<Void> leaderDone = filter.filter(leader, slow).cache();
+        leaderDone.subscribe();
+        Mono<Void> followerDone = filter.filter(follower, slow).cache();
+        followerDone.subscribe();
+
+        release.tryEmitEmpty();
+        leaderDone.block(Duration.ofSeconds(5));
+        followerDone.block(Duration.ofSeconds(5));
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(COLLEGES, follower.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void gzipClientsGetTheBodyCompressedOnceAtCaptureTime() throws Exception {
+        String large = "{\"data\":\"" + "UIT ".repeat(1_000) + "\"}";
+        filter.filter(get(), downstream(large)).block();
+        MockServerWebExchange hit = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/admin/public/colleges").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+        filter.filter(hit, downstream("changed")).block();
+
+        HttpHeaders headers = hit.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getETag().endsWith("-gzip\""));
+        byte[] gzipped = DataBufferUtils.join(hit.getResponse().getBody()).map(buffer -> {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        }).block();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(large, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    private GatewayFilterChain downstream(String body) {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/admin/public/colleges"));
+    }
+
+    private static CompressionFilter compression() {
+        return new CompressionFilter(new CompressionProperties(), new SimpleMeterRegistry());
+    }
+
+    private static ResponseCacheProperties properties() {
+        ResponseCacheProperties.Rule colleges = new ResponseCacheProperties.Rule();
+        colleges.setPath("/admin/public/colleges");
+        colleges.setTtl(Duration.ofMinutes(10));
+        colleges.setInvalidatedBy(List.of("/admin/add-college"));
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRules(List.of(colleges));
+        return properties;
+    }
+}
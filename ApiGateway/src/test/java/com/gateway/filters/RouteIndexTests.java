@@ -0,0 +1,55 @@
+package com.gateway.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteIndexTests {
+
+    private final RouteIndex index = RouteIndex.compile(List.of(
+            "/auth/login", "/auth/refresh", "/admin/public/*/courses", "/admin/public/**",
+            "notification/ws-notifications/**"));
+
+    @Test
+    void literalPatternsMatchExactly() {
+        assertTrue(index.matches("/auth/login"));
+        assertTrue(index.matches("//auth//login/"));
+        assertFalse(index.matches("/auth/login/extra/segments"));
+        assertFalse(index.matches("/xauth/login"));
+    }
+
+    @Test
+    void authRoutesOutsideTheListStaySecured() {
+        assertTrue(index.matches("/auth/refresh"));
+        assertFalse(index.matches("/auth/change-password"));
+        assertFalse(index.matches("/auth"));
+        assertFalse(index.matches("/auth/internal/update-status"));
+    }
+
+    @Test
+    void singleWildcardMatchesExactlyOneSegment() {
+        RouteIndex wildcard = RouteIndex.compile(List.of("/catalog/*/courses"));
+        assertTrue(wildcard.matches("/catalog/7/courses"));
+        assertFalse(wildcard.matches("/catalog/courses"));
+        assertFalse(wildcard.matches("/catalog/7/8/courses"));
+    }
+
+    @Test
+    void trailingDoubleWildcardMatchesAnyDepth() {
+        assertTrue(index.matches("/admin/public"));
+        assertTrue(index.matches("/admin/public/departments/7"));
+        assertTrue(index.matches("/notification/ws-notifications/123/abc/websocket"));
+        assertFalse(index.matches("/admin/departments/7/hod"));
+        assertFalse(index.matches("/admin/publicity"));
+    }
+
+    @Test
+    void rejectsUnsupportedPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> RouteIndex.compile(List.of("/a/**/b")));
+        assertThrows(IllegalArgumentException.class, () -> RouteIndex.compile(List.of("/a/b*")));
+    }
+}
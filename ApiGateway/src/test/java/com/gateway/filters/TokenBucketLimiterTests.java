@@ -0,0 +1,80 @@
+package com.gateway.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstThenRefillsOneTokenPerEmissionInterval() {
+        // 60/minute = one token per second, three back to back
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 60, 1000);
+        long start = System.nanoTime();
+
+        assertEquals(0, limiter.tryAcquire("a", start));
+        assertEquals(0, limiter.tryAcquire("a", start));
+        assertEquals(0, limiter.tryAcquire("a", start));
+        assertEquals(SECOND, limiter.tryAcquire("a", start));
+        assertEquals(SECOND / 2, limiter.tryAcquire("a", start + SECOND / 2));
+
+        assertEquals(0, limiter.tryAcquire("a", start + SECOND));
+        assertEquals(SECOND, limiter.tryAcquire("a", start + SECOND));
+        // Other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("b", start));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 1000);
+        long later = System.nanoTime() + 60 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertEquals(0, limiter.tryAcquire("a", later));
+        assertTrue(limiter.tryAcquire("a", later) > 0);
+    }
+
+    @Test
+    void fullStripeSendsUnseenKeysToItsSharedOverflowBucket() {
+        // 16 keys over 16 stripes = one tracked key per stripe
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 16);
+        String tracked = "key-0";
+        String[] sameStripe = sameStripeAs(tracked, 2);
+        long now = System.nanoTime();
+
+        assertEquals(0, limiter.tryAcquire(tracked, now));
+        assertEquals(0, limiter.tryAcquire(sameStripe[0], now));
+        assertTrue(limiter.tryAcquire(sameStripe[1], now) > 0, "overflow bucket is shared and now empty");
+        assertEquals(1, limiter.trackedKeys());
+
+        // Once the tracked bucket has refilled it is swept and the slot is free again
+        long refilled = now + 61 * SECOND;
+        assertEquals(0, limiter.tryAcquire(sameStripe[1], refilled));
+        assertEquals(1, limiter.trackedKeys());
+        assertTrue(limiter.tryAcquire(sameStripe[1], refilled) > 0);
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 10, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(10, 0, 100));
+    }
+
+    private static String[] sameStripeAs(String key, int count) {
+        String[] keys = new String[count];
+        int found = 0;
+        for (int i = 1; found < count; i++) {
+            String candidate = "key-" + i;
+            if (TokenBucketLimiter.stripeOf(candidate) == TokenBucketLimiter.stripeOf(key)) {
+                keys[found++] = candidate;
+            }
+        }
+        return keys;
+    }
+}
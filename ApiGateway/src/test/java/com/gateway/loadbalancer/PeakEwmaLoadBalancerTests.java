@@ -0,0 +1,64 @@
+package com.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeakEwmaLoadBalancerTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InstanceLoadTracker tracker =
+            new InstanceLoadTracker(registry, Duration.ofSeconds(10), Duration.ofMillis(30));
+    private final PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(null, "auth-service", tracker);
+
+    private final ServiceInstance fast = instance("auth-service:8081", 8081);
+    private final ServiceInstance slow = instance("auth-service:8082", 8082);
+
+    @Test
+    void slowInstanceIsNeverPickedOverAFastOneWithTwoInstances() {
+        long now = System.nanoTime();
+        tracker.loadOf(fast).observe(TimeUnit.MILLISECONDS.toNanos(20), now);
+        tracker.loadOf(slow).observe(TimeUnit.MILLISECONDS.toNanos(900), now);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(fast, balancer.choose(List.of(fast, slow)).getServer());
+        }
+    }
+
+    @Test
+    void inFlightRequestsRaiseTheCost() {
+        InstanceLoadTracker.InstanceLoad load = tracker.loadOf(fast);
+        long now = System.nanoTime();
+        double idle = load.cost(now);
+
+        load.started();
+        load.started();
+        assertEquals(3 * idle, load.cost(now), idle * 0.01);
+        load.finished();
+        load.finished();
+    }
+
+    @Test
+    void departedInstancesLoseTheirGauges() {
+        tracker.loadOf(fast);
+        tracker.loadOf(slow);
+        tracker.retain("auth-service", List.of(fast));
+
+        assertTrue(registry.find("gateway.loadbalancer.instance.cost").tag("instance", "auth-service:8081").gauge() != null);
+        assertFalse(registry.find("gateway.loadbalancer.instance.cost").tag("instance", "auth-service:8082").gauge() != null);
+        assertFalse(balancer.choose(List.of()).hasServer());
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "auth-service", "localhost", port, false);
+    }
+}
@@ -0,0 +1,72 @@
+package com.gateway.loadbalancer;
+
+import com.gateway.filters.RouteIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAffinityLoadBalancerTests {
+
+    private final UserAffinityLoadBalancer balancer = new UserAffinityLoadBalancer(null, null,
+            RouteIndex.compile(List.of("/notification/ws-notifications/**", "/ws-notifications/**")));
+
+    private final ServiceInstance a = instance("notification-service:8083", 8083);
+    private final ServiceInstance b = instance("notification-service:8084", 8084);
+    private final ServiceInstance c = instance("notification-service:8085", 8085);
+
+    @Test
+    void userLandsOnTheInstanceTheRingAssignsRegardlessOfListOrder() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of(a.getInstanceId(), b.getInstanceId(), c.getInstanceId()));
+        for (int user = 0; user < 200; user++) {
+            String userId = String.valueOf(user);
+            assertEquals(ring.ownerOf(userId), balancer.choose(List.of(a, b, c), userId).getServer().getInstanceId());
+            assertEquals(ring.ownerOf(userId), balancer.choose(List.of(c, a, b), userId).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void removingAnInstanceOnlyMovesItsOwnUsers() {
+        int moved = 0;
+        for (int user = 0; user < 1_000; user++) {
+            String userId = String.valueOf(user);
+            ServiceInstance before = balancer.choose(List.of(a, b, c), userId).getServer();
+            ServiceInstance after = balancer.choose(List.of(a, b), userId).getServer();
+            if (before != c) {
+                assertEquals(before, after);
+            } else {
+                moved++;
+            }
+        }
+        // Roughly a third of the users belonged to the removed instance
+        assertTrue(moved > 200 && moved < 470, "moved " + moved);
+    }
+
+    @Test
+    void readsUserIdFromTheQueryString() {
+        assertEquals("42", UserAffinityLoadBalancer.queryParam("userId=42", "userId"));
+        assertEquals("42", UserAffinityLoadBalancer.queryParam("t=1&userId=42&x=y", "userId"));
+        assertNull(UserAffinityLoadBalancer.queryParam("otherUserId=42", "userId"));
+        assertNull(UserAffinityLoadBalancer.queryParam(null, "userId"));
+    }
+
+    @Test
+    void onlyHandshakePathsAreSticky() {
+        assertEquals("42", balancer.stickyKey(URI.create("http://gw/notification/ws-notifications/info?userId=42")));
+        assertEquals("42", balancer.stickyKey(URI.create("http://gw/ws-notifications/123/abc/websocket?userId=42")));
+        // Paths that merely contain the endpoint name are balanced normally
+        assertNull(balancer.stickyKey(URI.create("http://gw/notification/notifications/ws-notifications?userId=42")));
+        assertNull(balancer.stickyKey(URI.create("http://gw/notification/ws-notifications-archive?userId=42")));
+        assertNull(balancer.stickyKey(URI.create("http://gw/notification/ws-notifications/info")));
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "notification-service", "localhost", port, false);
+    }
+}
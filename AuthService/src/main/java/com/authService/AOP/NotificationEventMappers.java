@@ -0,0 +1,156 @@
+package com.authService.AOP;
+
+import com.authService.DTO.NotificationEvent;
+import com.authService.DTO.SignupRequest;
+import com.authService.entities.User;
+import com.authService.services.OtpService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link Mapper} per {@link SendNotification} method, chosen once from the method's event type
+ * and signature when the context starts. The advice then only looks the method up and calls the
+ * mapper; no instanceof chain or event-type comparisons per call.
+ * <p>
+ * A method whose signature does not fit its event type fails startup rather than sending an
+ * incomplete event.
+ */
+@Component
+@Slf4j
+public class NotificationEventMappers implements SmartInitializingSingleton {
+
+    /**
+     * Fills the target, priority and payload of an event whose envelope is already set.
+     */
+    @FunctionalInterface
+    public interface Mapper {
+        void populate(NotificationEvent event, Object[] args, Object result);
+    }
+
+    private static final Mapper NONE = (event, args, result) -> { };
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final Map<Method, Mapper> mappers = new ConcurrentHashMap<>();
+
+    public NotificationEventMappers(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(name, false);
+            if (type != null && type.getName().startsWith("com.authService.")) {
+                register(ClassUtils.getUserClass(type));
+            }
+        }
+        log.info("Prepared notification event mappers for {} method(s)", mappers.size());
+    }
+
+    public void register(Class<?> type) {
+        ReflectionUtils.doWithMethods(type, method -> {
+            SendNotification annotation = AnnotatedElementUtils.findMergedAnnotation(method, SendNotification.class);
+            if (annotation != null) {
+                mappers.put(method, mapperFor(method, annotation.eventType()));
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+    }
+
+    /**
+     * @param method the advised method as the join point reports it (interface or proxy methods resolve
+     *               to the target class's declaration)
+     */
+    public Mapper get(Method method, Class<?> targetClass) {
+        Mapper mapper = mappers.get(method);
+        if (mapper != null) {
+            return mapper;
+        }
+        // Beans created after startup (lazy or prototype) are resolved once, then cached
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        SendNotification annotation = AnnotatedElementUtils.findMergedAnnotation(specific, SendNotification.class);
+        return mappers.computeIfAbsent(method, m -> annotation == null ? NONE : mapperFor(specific, annotation.eventType()));
+    }
+
+    static Mapper mapperFor(Method method, String eventType) {
+        Class<?> returnType = method.getReturnType();
+        Class<?>[] params = method.getParameterTypes();
+        boolean signupArg = params.length > 0 && SignupRequest.class.isAssignableFrom(params[0]);
+
+        if (OtpService.OtpEvent.class.isAssignableFrom(returnType)) {
+            return (event, args, result) -> {
+                OtpService.OtpEvent otpData = (OtpService.OtpEvent) result;
+                event.setTargetEmail(otpData.getEmail());
+                event.setPriority("HIGH");
+                event.setPayload(payload("otp", otpData.getOtpCode()));
+            };
+        }
+        if ("ADMIN_USER_CREATED".equals(eventType)) {
+            require(method, User.class.isAssignableFrom(returnType) && signupArg, "User f(SignupRequest, ...)");
+            return (event, args, result) -> {
+                User user = (User) result;
+                SignupRequest req = (SignupRequest) args[0];
+                event.setTargetUserId(user.getId());
+                event.setTargetEmail(user.getEmail());
+                Map<String, Object> payload = new HashMap<>(4);
+                payload.put("tempPassword", req.getPassword());
+                payload.put("role", req.getRole().toString());
+                event.setPayload(payload);
+            };
+        }
+        if ("USER_REGISTERED".equals(eventType)) {
+            require(method, signupArg, "f(SignupRequest, ...)");
+            return (event, args, result) -> {
+                SignupRequest req = (SignupRequest) args[0];
+                event.setTargetEmail(req.getEmail());
+                Map<String, Object> payload = new HashMap<>(4);
+                payload.put("userEmail", req.getEmail());
+                payload.put("departmentId", req.getDepartmentId());
+                payload.put("enrollmentNo", req.getEnrollmentNo());
+                event.setPayload(payload);
+            };
+        }
+        if (User.class.isAssignableFrom(returnType)) {
+            String priority = "ACCOUNT_APPROVED".equals(eventType) ? "HIGH" : null;
+            return (event, args, result) -> {
+                User user = (User) result;
+                event.setTargetUserId(user.getId());
+                event.setTargetEmail(user.getEmail());
+                event.setPayload(payload("status", user.getStatus().toString()));
+                if (priority != null) {
+                    event.setPriority(priority);
+                }
+            };
+        }
+        if ("PASSWORD_CHANGED".equals(eventType)) {
+            require(method, params.length > 0 && params[0] == String.class, "f(String email, ...)");
+            return (event, args, result) -> {
+                event.setTargetEmail((String) args[0]);
+                event.setPriority("HIGH");
+            };
+        }
+        return NONE;
+    }
+
+    private static Map<String, Object> payload(String key, Object value) {
+        Map<String, Object> payload = new HashMap<>(2);
+        payload.put(key, value);
+        return payload;
+    }
+
+    private static void require(Method method, boolean condition, String expected) {
+        if (!condition) {
+            throw new IllegalStateException("@SendNotification method " + method + " must look like " + expected);
+        }
+    }
+}
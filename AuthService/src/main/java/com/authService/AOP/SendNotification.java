@@ -10,4 +10,6 @@ import java.lang.annotation.Target;
 public @interface SendNotification {
     String topic();
     String eventType(); // e.g., "USER_REGISTERED", "STATUS_CHANGED"
+    // false for events carrying a secret (a temporary password): published after the commit, never stored
+    boolean outbox() default true;
 }
\ No newline at end of file
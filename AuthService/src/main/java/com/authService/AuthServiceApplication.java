@@ -3,9 +3,14 @@ package com.authService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+// Transactions wrap every other advice, so NotificationAspect (order 1) writes the outbox inside them
+@EnableTransactionManagement(order = 0)
 public class AuthServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,61 @@
+package com.authService.DTO;
+
+import com.authService.exceptions.UnauthorizedAccessException;
+
+/**
+ * What an admin may act on, from the claims the gateway forwards as {@code loggedInUser*} headers.
+ * A null id means no restriction at that level: SUPER_ADMIN has neither, COLLEGE_ADMIN only a
+ * college, DEPT_ADMIN a college and a department.
+ */
+public record AdminScope(String role, Long collegeId, Long departmentId) {
+
+    public static AdminScope of(String role, String collegeId, String departmentId, String deniedMessage) {
+        Long college = parse(collegeId);
+        Long department = parse(departmentId);
+        switch (role == null ? "" : role) {
+            case "SUPER_ADMIN":
+                return new AdminScope(role, null, null);
+            case "COLLEGE_ADMIN":
+                if (college != null) {
+                    return new AdminScope(role, college, null);
+                }
+                break;
+            case "DEPT_ADMIN":
+                if (department != null) {
+                    return new AdminScope(role, college, department);
+                }
+                break;
+            default:
+                throw new UnauthorizedAccessException(deniedMessage);
+        }
+        // An admin account not linked to its college/department would otherwise be unrestricted
+        throw new UnauthorizedAccessException("Access Denied: Your account is not linked to a "
+                + ("COLLEGE_ADMIN".equals(role) ? "college." : "department."));
+    }
+
+    /**
+     * The department a per-department request applies to: a DEPT_ADMIN's own when none is named,
+     * and never another one.
+     */
+    public Long department(Long requested) {
+        if (departmentId != null && requested != null && !departmentId.equals(requested)) {
+            throw new UnauthorizedAccessException("Access Denied: You can only act on your own department.");
+        }
+        Long department = departmentId != null ? departmentId : requested;
+        if (department == null) {
+            throw new IllegalArgumentException("departmentId is required.");
+        }
+        return department;
+    }
+
+    private static Long parse(String id) {
+        if (id == null || id.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(id.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
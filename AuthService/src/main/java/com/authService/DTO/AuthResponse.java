@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     private String token;
     private String status;
+    // Opaque, single-use: exchange it at /auth/refresh for a new access token and a new refresh token
+    private String refreshToken;
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.authService.DTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<RowResult> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResult {
+        private int row; // 1-based data row, header excluded
+        private String email;
+        private String status; // CREATED, DUPLICATE, INVALID
+        private String message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.authService.DTO;
+import com.authService.enums.Role;
+import lombok.Data;
+
+// One user in a bulk import file (a CSV row or an NDJSON line)
+@Data
+public class BulkImportRow {
+    private String email;
+    private String password;
+    private String enrollmentNo;
+    private Long collegeId;
+    private Long departmentId;
+    private Role role; // STUDENT when omitted
+}
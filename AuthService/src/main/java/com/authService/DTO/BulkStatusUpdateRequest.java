@@ -0,0 +1,18 @@
+package com.authService.DTO;
+import com.authService.enums.AccountStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<String> emails;
+
+    @NotNull
+    private AccountStatus status; // APPROVED or REJECTED
+}
@@ -0,0 +1,23 @@
+package com.authService.DTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateResponse {
+    private List<UpdatedUser> updated;
+    private List<String> skipped; // unknown emails, users no longer PENDING or outside the admin's scope
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdatedUser {
+        private Long id;
+        private String email;
+        private String status;
+    }
+}
@@ -0,0 +1,13 @@
+package com.authService.DTO;
+import com.authService.enums.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// The login-relevant columns as committed, read past the per-instance user cache before tokens are issued
+@Data
+@AllArgsConstructor
+public class LoginState {
+    private String password;
+    private AccountStatus status;
+    private boolean passwordChangeRequired;
+}
@@ -0,0 +1,16 @@
+package com.authService.DTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingQueueResponse {
+    private List<PendingUser> users;
+    private Long nextAfterId;    // pass as afterId for the next page; null on the last page
+    private Long pendingCount;   // first page only; capped, see countCapped
+    private Boolean countCapped; // true when there are at least pendingCount users
+}
@@ -0,0 +1,13 @@
+package com.authService.DTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Approval-queue row; a query projection, so the password hash is never read
+@Data
+@AllArgsConstructor
+public class PendingUser {
+    private Long id;
+    private String email;
+    private String enrollmentNo;
+    private Long collegeId;
+}
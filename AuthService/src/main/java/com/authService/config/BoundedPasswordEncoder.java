@@ -0,0 +1,160 @@
+package com.authService.config;
+
+import com.authService.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small pool sized to the CPU instead of on Tomcat request threads.
+ * <p>
+ * The queue is bounded: when a login burst fills it, further hashing requests fail at once with
+ * {@link PasswordHashingBusyException} (503) rather than queueing, so request threads come back
+ * quickly and cheap endpoints such as send-otp keep answering.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final boolean rehashOnLogin;
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity,
+                                  boolean rehashOnLogin, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.rehashOnLogin = rehashOnLogin;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("auth.password.queue.wait")
+                .description("Time a password hashing task waited for a worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTime = hashTimer(meterRegistry, "encode");
+        this.matchesTime = hashTimer(meterRegistry, "matches");
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeTime);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesTime);
+    }
+
+    /**
+     * Hashes many passwords in parallel for bulk work such as imports. At most one task per worker
+     * is outstanding, so the queue keeps room for logins; if it is full anyway the calling thread
+     * hashes that password itself instead of failing with {@link PasswordHashingBusyException}.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getMaximumPoolSize();
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        String[] hashes = new String[rawPasswords.size()];
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (i >= window && futures.get(i - window) != null) {
+                hashes[i - window] = await(futures.get(i - window));
+            }
+            CharSequence rawPassword = rawPasswords.get(i);
+            try {
+                futures.add(submit(() -> delegate.encode(rawPassword), encodeTime));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+                hashes[i] = delegate.encode(rawPassword);
+            }
+        }
+        for (int i = Math.max(0, hashes.length - window); i < hashes.length; i++) {
+            if (futures.get(i) != null) {
+                hashes[i] = await(futures.get(i));
+            }
+        }
+        return List.of(hashes);
+    }
+
+    // Only consulted by DaoAuthenticationProvider after a successful login
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return rehashOnLogin && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task, Timer hashTime) {
+        Future<T> future;
+        try {
+            future = submit(task, hashTime);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Too many sign-in requests right now. Please retry shortly.");
+        }
+        return await(future);
+    }
+
+    private <T> Future<T> submit(Callable<T> task, Timer hashTime) {
+        long submitted = System.nanoTime();
+        return executor.submit(() -> {
+            long started = System.nanoTime();
+            queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+            try {
+                return task.call();
+            } finally {
+                hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .tag("operation", operation)
+                .description("Time spent in BCrypt on the hashing pool")
+                .register(meterRegistry);
+    }
+}
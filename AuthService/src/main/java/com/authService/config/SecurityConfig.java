@@ -1,7 +1,10 @@
 package com.authService.config;
 
 
+import com.authService.services.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +14,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -24,6 +26,20 @@ public class SecurityConfig {
     @Autowired
     private GatewaySecretFilter gatewaySecretFilter;
 
+    // BCrypt cost factor for new hashes (4-31, +1 doubles the work)
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${auth.password.queue-capacity:32}")
+    private int hashingQueueCapacity;
+
+    // Re-hash a user's password at the current strength after they log in with an older one
+    @Value("${auth.password.rehash-on-login:false}")
+    private boolean rehashOnLogin;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -39,16 +55,19 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, PasswordEncoder encoder) {
+    public AuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService, PasswordEncoder encoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
         provider.setPasswordEncoder(encoder);
         return provider;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int poolSize = hashingPoolSize > 0 ? hashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), poolSize,
+                hashingQueueCapacity, rehashOnLogin, meterRegistry);
     }
 
     @Bean
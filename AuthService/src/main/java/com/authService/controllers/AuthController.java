@@ -4,13 +4,18 @@ import com.authService.DTO.*;
 import com.authService.entities.User;
 import com.authService.enums.AccountStatus;
 import com.authService.services.AuthService;
+import com.authService.services.BulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -18,12 +23,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final BulkImportService bulkImportService;
 
     // 1. Generate OTP
     @PostMapping("/send-otp")
-    public ResponseEntity<ApiResponse<Void>> sendOtp(@RequestParam String email) {
+    public ResponseEntity<ApiResponse<Void>> sendOtp(@RequestParam String email, HttpServletRequest httpRequest) {
         log.info("Request received: Send OTP for verification to {}", email);
-        authService.verifyEmail(email);
+        authService.verifyEmail(email, clientIp(httpRequest));
         return ResponseEntity.ok(ApiResponse.success(null, "OTP sent successfully to " + email));
     }
 
@@ -44,11 +50,25 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(response, "Login successful."));
     }
 
+    // Public: trade a refresh token for a new access token (the refresh token is rotated)
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success(response, "Token refreshed."));
+    }
+
+    // Public: end the session behind this refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success(null, "Logged out."));
+    }
+
     // 3. Forgot Password (Step 1)
     @PostMapping("/forgot-password")
-    public ResponseEntity<ApiResponse<Void>> forgotPassword(@RequestParam String email) {
+    public ResponseEntity<ApiResponse<Void>> forgotPassword(@RequestParam String email, HttpServletRequest httpRequest) {
         log.info("Request received: Forgot password OTP for {}", email);
-        authService.forgotPassword(email);
+        authService.forgotPassword(email, clientIp(httpRequest));
         return ResponseEntity.ok(ApiResponse.success(null, "OTP sent to your email for password reset."));
     }
 
@@ -79,6 +99,57 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(null, "Status updated to " + status));
     }
 
+    // Admin only: the department's approval queue, paged by id (pass nextAfterId back as afterId).
+    // A DEPT_ADMIN gets their own department; a COLLEGE_ADMIN only sees users of their college.
+    @GetMapping("/internal/pending")
+    public ResponseEntity<ApiResponse<PendingQueueResponse>> pendingQueue(
+            @RequestHeader("loggedInUserRole") String role,
+            @RequestHeader(value = "loggedInUserCollegeId", required = false) String collegeId,
+            @RequestHeader(value = "loggedInUserDepartmentId", required = false) String userDepartmentId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+
+        AdminScope scope = AdminScope.of(role, collegeId, userDepartmentId, "Access Denied: Only admins can view the approval queue.");
+        PendingQueueResponse response = authService.pendingQueue(scope.collegeId(), scope.department(departmentId),
+                afterId, Math.max(1, Math.min(size, 100)));
+        return ResponseEntity.ok(ApiResponse.success(response, "Pending users fetched successfully."));
+    }
+
+    // Admin only: approve or reject many PENDING users in one call
+    @PutMapping("/internal/update-status/bulk")
+    public ResponseEntity<ApiResponse<BulkStatusUpdateResponse>> updateStatuses(
+            @RequestHeader("loggedInUserRole") String role,
+            @RequestHeader(value = "loggedInUserCollegeId", required = false) String collegeId,
+            @RequestHeader(value = "loggedInUserDepartmentId", required = false) String departmentId,
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+
+        // Users outside the admin's own college/department are skipped
+        AdminScope scope = AdminScope.of(role, collegeId, departmentId, "Access Denied: Only admins can change account status.");
+        log.info("Request received: Bulk status update of {} user(s) to {}", request.getEmails().size(), request.getStatus());
+        BulkStatusUpdateResponse response = authService.updatePendingStatuses(request.getEmails(), request.getStatus(), scope);
+        return ResponseEntity.ok(ApiResponse.success(response,
+                response.getUpdated().size() + " user(s) updated to " + request.getStatus()));
+    }
+
+    // Admin only: create a cohort from a CSV (header row) or NDJSON body, streamed row by row
+    @PostMapping(value = "/internal/bulk-import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<BulkImportResponse>> bulkImport(
+            @RequestHeader("loggedInUserRole") String role,
+            @RequestHeader(value = "loggedInUserCollegeId", required = false) String collegeId,
+            @RequestHeader(value = "loggedInUserDepartmentId", required = false) String departmentId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest httpRequest) throws IOException {
+
+        // Rows outside the admin's own college/department are refused
+        AdminScope scope = AdminScope.of(role, collegeId, departmentId, "Access Denied: Only admins can import users.");
+        log.info("Request received: Bulk import ({}) by {}", contentType, role);
+        BulkImportResponse response = bulkImportService.importUsers(httpRequest.getInputStream(),
+                contentType.startsWith("application/x-ndjson"), scope);
+        return ResponseEntity.ok(ApiResponse.success(response,
+                "Imported " + response.getCreated() + " user(s)."));
+    }
+
     // Internal Endpoint: Protected by Gateway Secret
     @PostMapping("/internal/create-admin")
     public ResponseEntity<ApiResponse<Long>> createAdmin(@Valid @RequestBody SignupRequest request) {
@@ -87,4 +158,13 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(user.getId(), "Admin user created successfully."));
     }
-}
\ No newline at end of file
+
+    // The gateway appends the address it saw to X-Forwarded-For; entries left of it are client-supplied
+    private static String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,38 @@
+package com.authService.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A Kafka message written in the same transaction as the change it announces; OutboxRelay sends it
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_sent_id", columnList = "sentAt, id"),
+        @Index(name = "idx_outbox_key_id", columnList = "messageKey, id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    // Kafka record key: keeps one user's events on one partition, in order
+    private String messageKey;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    // Set while a relay instance sends the row; a lease that ran out means that instance died mid-send
+    private Instant claimedUntil;
+}
@@ -6,7 +6,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "users")
+// The approval queue reads (departmentId, status) in id order; this index serves it without a scan or sort
+@Table(name = "users", indexes = @Index(name = "idx_users_department_status_id", columnList = "departmentId, status, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +37,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "ERR_INVALID_OTP_OR_CREDENTIALS"));
     }
 
+    @ExceptionHandler(UnauthorizedAccessException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnauthorized(UnauthorizedAccessException ex) {
+        log.warn("Access denied: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error(ex.getMessage(), "ERR_ACCESS_DENIED"));
+    }
+
     @ExceptionHandler(AccountStatusException.class)
     public ResponseEntity<ApiResponse<Void>> handleAccountStatus(AccountStatusException ex) {
         log.warn("Account status restriction: {}", ex.getMessage());
@@ -52,6 +59,29 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "ERR_PASSWORD_RESET_REQUIRED"));
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHashingBusy(PasswordHashingBusyException ex) {
+        log.warn("Password hashing queue full: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ApiResponse.error(ex.getMessage(), "ERR_AUTH_BUSY"));
+    }
+
+    @ExceptionHandler(OtpThrottledException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOtpThrottled(OtpThrottledException ex) {
+        log.warn("OTP throttled: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), "ERR_OTP_THROTTLED"));
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        log.warn("Refresh rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(ApiResponse.error(ex.getMessage(), "ERR_INVALID_REFRESH_TOKEN"));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse<Void>> handleBadCredentials(BadCredentialsException ex) {
         log.warn("Bad credentials provided: {}", ex.getMessage());
@@ -59,6 +89,13 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid email or password.", "ERR_BAD_CREDENTIALS"));
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage(), "ERR_BAD_REQUEST"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationErrors(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,5 @@
+package com.authService.exceptions;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) { super(message); }
+}
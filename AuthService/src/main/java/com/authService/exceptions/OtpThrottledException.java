@@ -0,0 +1,12 @@
+package com.authService.exceptions;
+
+public class OtpThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public OtpThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
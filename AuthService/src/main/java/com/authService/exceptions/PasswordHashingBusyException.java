@@ -0,0 +1,5 @@
+package com.authService.exceptions;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) { super(message); }
+}
@@ -1,16 +1,21 @@
 package com.authService.jwtSecurity;
 
-import com.authService.entities.User;
+import com.authService.services.UserInfoDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -23,9 +28,39 @@ public class JwtService {
     @Value("${app.jwt.secret}")
     private String SECRET;
 
-    // Modified to accept User entity to extract claims
-    public String generateToken(User user) {
-        log.info("Generating JWT token for user: {}", user.getEmail());
+    @Autowired(required = false)
+    private Environment environment;
+
+    // Keys are decoded and the parser built once per key set, not on every call
+    private volatile SigningKeys keys;
+
+    @PostConstruct
+    void init() {
+        keys = loadKeys();
+    }
+
+    // Fired by a config refresh, so the signing kid can roll over without a restart or a logout
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("app.jwt."))) {
+            keys = loadKeys();
+            log.info("Reloaded JWT keys {}; signing with [{}]", keys.kids(), keys.signingKid());
+        }
+    }
+
+    // Takes the UserInfoDetails login already loaded, so issuing a token needs no second lookup
+    public String generateToken(UserInfoDetails user) {
+        log.debug("Generating JWT token for user: {}", user.getUsername());
+        return createToken(claimsOf(user), user.getUsername());
+    }
+
+    // Reissues a token from claims captured at login, e.g. by a refresh-token exchange
+    public String generateToken(String email, Map<String, Object> claims) {
+        log.debug("Reissuing JWT token for user: {}", email);
+        return createToken(new HashMap<>(claims), email);
+    }
+
+    public Map<String, Object> claimsOf(UserInfoDetails user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", user.getRole());
         claims.put("collegeId", user.getCollegeId());
@@ -33,23 +68,36 @@ public class JwtService {
         claims.put("enrollmentNo", user.getEnrollmentNo());
         claims.put("status", user.getStatus());
         claims.put("userId", user.getId());
-
-        return createToken(claims, user.getEmail());
+        return claims;
     }
 
     private String createToken(Map<String, Object> claims, String email) {
+        // jjwt builders are single-use, but the decoded key is shared
+        SigningKeys current = keys;
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, current.signingKid())
                 .setClaims(claims)
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30)) // 30 mins
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(current.signingKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * {@code app.jwt.secret} is the primary key ({@code app.jwt.kid}, default "primary");
+     * {@code app.jwt.keys.<kid>} adds more, and {@code app.jwt.signing-kid} picks the one new tokens use.
+     */
+    private SigningKeys loadKeys() {
+        if (environment == null) {
+            return SigningKeys.of(SECRET, SigningKeys.DEFAULT_KID, Map.of(), SigningKeys.DEFAULT_KID);
+        }
+        Map<String, String> others = Binder.get(environment)
+                .bind("app.jwt.keys", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        String primaryKid = environment.getProperty("app.jwt.kid", SigningKeys.DEFAULT_KID);
+        return SigningKeys.of(environment.getRequiredProperty("app.jwt.secret"), primaryKid, others,
+                environment.getProperty("app.jwt.signing-kid", primaryKid));
     }
 
     public String extractUsername(String token) {
@@ -67,11 +115,7 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSignKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return keys.parser().parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.error("Failed to extract claims from token: {}", e.getMessage());
             throw e;
@@ -80,7 +124,7 @@ public class JwtService {
 
     public boolean validateToken(final String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+            keys.parser().parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             log.warn("JWT Token validation failed: {}", e.getMessage());
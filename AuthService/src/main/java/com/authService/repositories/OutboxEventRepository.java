@@ -0,0 +1,49 @@
+package com.authService.repositories;
+
+import com.authService.entities.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claims are taken one instance at a time (held until the claiming transaction ends), so the key check
+    // below always sees the other instances' claims; false means another instance is claiming right now
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('outbox_events'))", nativeQuery = true)
+    boolean tryLockClaims();
+
+    // Unsent rows without a live claim, minus those whose key still has an earlier row in flight on
+    // another instance: sending them now could overtake that row if it fails
+    @Query(value = "select * from outbox_events o where o.sent_at is null"
+            + " and (o.claimed_until is null or o.claimed_until < :now)"
+            + " and not exists (select 1 from outbox_events e where e.message_key = o.message_key and e.id < o.id"
+            + " and e.sent_at is null and e.claimed_until >= :now)"
+            + " order by o.id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> lockUnclaimed(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    Optional<OutboxEvent> findFirstBySentAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") Instant before);
+}
@@ -1,16 +1,56 @@
 package com.authService.repositories;
 
 
+import com.authService.DTO.LoginState;
+import com.authService.DTO.PendingUser;
 import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,String> {
     Optional<User> findByEmail(String email); // Use 'email' if that is the correct field for login
 
     boolean existsByEmail(String email);
+
+    // One query for a whole import batch instead of an existsByEmail per row
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Keyset page of the approval queue: WHERE department_id = ? AND status = ? AND id > ? ORDER BY id LIMIT ?
+    List<PendingUser> findByDepartmentIdAndStatusAndIdGreaterThanOrderByIdAsc(
+            Long departmentId, AccountStatus status, Long afterId, Limit limit);
+
+    // Same page for a college-level admin, who may only see departments of their own college
+    List<PendingUser> findByCollegeIdAndDepartmentIdAndStatusAndIdGreaterThanOrderByIdAsc(
+            Long collegeId, Long departmentId, AccountStatus status, Long afterId, Limit limit);
+
+    // Counts at most :cap rows, so a huge queue costs no more than a small one ("999+" on the badge)
+    @Query(value = "select count(*) from (select 1 from users where department_id = :departmentId and status = :status limit :cap) q",
+            nativeQuery = true)
+    long countCapped(@Param("departmentId") Long departmentId, @Param("status") String status, @Param("cap") int cap);
+
+    @Query(value = "select count(*) from (select 1 from users where college_id = :collegeId and department_id = :departmentId"
+            + " and status = :status limit :cap) q", nativeQuery = true)
+    long countCappedInCollege(@Param("collegeId") Long collegeId, @Param("departmentId") Long departmentId,
+                              @Param("status") String status, @Param("cap") int cap);
+
+    @Query("select new com.authService.DTO.LoginState(u.password, u.status, u.isPasswordChangeRequired) from User u where u.email = :email")
+    Optional<LoginState> findLoginState(@Param("email") String email);
+
+    // Sets a new hash without loading the row first; returns 0 when no user has this email
+    @Modifying
+    @Query("update User u set u.password = :password, u.isPasswordChangeRequired = false where u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
@@ -1,39 +1,67 @@
 package com.authService.services;
 
 import com.authService.AOP.SendNotification;
+import com.authService.DTO.AdminScope;
 import com.authService.DTO.AuthResponse;
+import com.authService.DTO.BulkStatusUpdateResponse;
 import com.authService.DTO.LoginRequest;
+import com.authService.DTO.LoginState;
+import com.authService.DTO.NotificationEvent;
+import com.authService.DTO.PendingQueueResponse;
+import com.authService.DTO.PendingUser;
 import com.authService.DTO.SignupRequest;
 import com.authService.entities.User;
 import com.authService.enums.AccountStatus;
 import com.authService.exceptions.*;
 import com.authService.jwtSecurity.JwtService;
 import com.authService.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
 
+    private static final int PENDING_COUNT_CAP = 1000;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final OtpService otpService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final OutboxService outboxService;
+    private final EmailBloomFilter emailBloomFilter;
 
     @Transactional
     @SendNotification(topic = "notification.user", eventType = "USER_REGISTERED")
     public User registerUser(SignupRequest request) {
         log.info("Attempting to register user with email: {}", request.getEmail());
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (emailBloomFilter.exists(request.getEmail(), userRepository::existsByEmail)) {
             log.warn("Registration failed: Email {} already exists.", request.getEmail());
             throw new DuplicateResourceException("Email already exists.");
         }
@@ -55,7 +83,7 @@ public class AuthService {
                 .isEmailVerified(true)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveNew(user);
         log.info("User registered successfully: {} with ID: {}", savedUser.getEmail(), savedUser.getId());
         return savedUser;
     }
@@ -72,26 +100,111 @@ public class AuthService {
 
         user.setStatus(newStatus);
         User updatedUser = userRepository.save(user);
+        userDetailsCache.evict(email);
+        refreshTokenService.revokeAll(email);
         log.info("Status updated successfully for user: {}", email);
         return updatedUser;
     }
 
-    public AuthResponse login(LoginRequest request) {
-        log.info("Login attempt for email: {}", request.getEmail());
+    /**
+     * Moves many PENDING users to APPROVED or REJECTED with one UPDATE ... RETURNING. Users that are
+     * unknown, no longer PENDING or outside the admin's scope are left alone and reported as skipped.
+     * The STATUS_CHANGED events are written to the outbox in the same transaction.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updatePendingStatuses(List<String> emails, AccountStatus newStatus, AdminScope scope) {
+        if (newStatus == AccountStatus.PENDING) {
+            throw new IllegalArgumentException("Target status must be APPROVED or REJECTED.");
+        }
+        log.info("Bulk status update of {} user(s) to {} by {}", emails.size(), newStatus, scope.role());
+
+        StringBuilder sql = new StringBuilder("UPDATE users SET status = :status WHERE email IN (:emails) AND status = 'PENDING'");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("status", newStatus.name())
+                .addValue("emails", emails);
+        if (scope.collegeId() != null) {
+            sql.append(" AND college_id = :collegeId");
+            params.addValue("collegeId", scope.collegeId());
+        }
+        if (scope.departmentId() != null) {
+            sql.append(" AND department_id = :departmentId");
+            params.addValue("departmentId", scope.departmentId());
+        }
+        sql.append(" RETURNING id, email, status");
+
+        List<BulkStatusUpdateResponse.UpdatedUser> updated = namedJdbcTemplate.query(sql.toString(), params,
+                (rs, rowNum) -> new BulkStatusUpdateResponse.UpdatedUser(
+                        rs.getLong("id"), rs.getString("email"), rs.getString("status")));
+
+        // PENDING users cannot log in, so they have no refresh sessions to revoke
+        Set<String> updatedEmails = new HashSet<>();
+        List<NotificationEvent> events = new ArrayList<>(updated.size());
+        for (BulkStatusUpdateResponse.UpdatedUser user : updated) {
+            updatedEmails.add(user.getEmail());
+            userDetailsCache.evict(user.getEmail());
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("status", user.getStatus());
+            events.add(NotificationEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .eventType("STATUS_CHANGED")
+                    .timestamp(LocalDateTime.now())
+                    .priority("MEDIUM")
+                    .targetUserId(user.getId())
+                    .targetEmail(user.getEmail())
+                    .payload(payload)
+                    .build());
+        }
+        // Same transaction as the UPDATE; OutboxRelay sends them as one batch after the commit
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
-        } catch (BadCredentialsException e) {
-            log.warn("Login failed: Invalid credentials for email: {}", request.getEmail());
-            throw new InvalidOtpException("Invalid email or password."); 
+            outboxService.enqueueAll("notification.system", events);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize STATUS_CHANGED events", e);
         }
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> {
-                    log.error("Login failed: User record disappeared for email: {}", request.getEmail());
-                    return new ResourceNotFoundException("User not found.");
-                });
+        List<String> skipped = emails.stream().filter(email -> !updatedEmails.contains(email)).distinct().toList();
+        log.info("Bulk status update done: {} updated, {} skipped", updated.size(), skipped.size());
+        return new BulkStatusUpdateResponse(updated, skipped);
+    }
+
+    /**
+     * One keyset page of a department's PENDING users, oldest first. The first page also carries the
+     * queue size for the badge, counted up to {@code PENDING_COUNT_CAP}.
+     *
+     * @param collegeId the admin's college, or null for a SUPER_ADMIN; users of other colleges are left out
+     */
+    public PendingQueueResponse pendingQueue(Long collegeId, Long departmentId, Long afterId, int size) {
+        long after = afterId == null ? 0L : afterId;
+        List<PendingUser> users = collegeId == null
+                ? userRepository.findByDepartmentIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                        departmentId, AccountStatus.PENDING, after, Limit.of(size))
+                : userRepository.findByCollegeIdAndDepartmentIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                        collegeId, departmentId, AccountStatus.PENDING, after, Limit.of(size));
+        Long nextAfterId = users.size() < size ? null : users.get(users.size() - 1).getId();
+
+        if (afterId != null) {
+            return new PendingQueueResponse(users, nextAfterId, null, null);
+        }
+        long count = collegeId == null
+                ? userRepository.countCapped(departmentId, AccountStatus.PENDING.name(), PENDING_COUNT_CAP)
+                : userRepository.countCappedInCollege(collegeId, departmentId, AccountStatus.PENDING.name(), PENDING_COUNT_CAP);
+        return new PendingQueueResponse(users, nextAfterId, count, count >= PENDING_COUNT_CAP);
+    }
+
+    public AuthResponse login(LoginRequest request) {
+        log.info("Login attempt for email: {}", request.getEmail());
+        UserInfoDetails user = authenticate(request);
+
+        // The user cache is per instance: a status or password change made on another instance only
+        // evicted its own copy. Check the committed row before issuing tokens, and start over from it
+        // if this copy is stale, or a suspended user (or an old password) could still get a session.
+        LoginState current = userRepository.findLoginState(request.getEmail()).orElse(null);
+        if (current == null || !current.getPassword().equals(user.getPassword())
+                || current.getStatus() != user.getStatus()
+                || current.isPasswordChangeRequired() != user.isPasswordChangeRequired()) {
+            log.info("Cached details of {} were stale; authenticating against the current row", request.getEmail());
+            userDetailsCache.evict(request.getEmail());
+            user = authenticate(request);
+        }
 
         if (user.isPasswordChangeRequired()) {
             log.info("Login required password reset for user: {}", request.getEmail());
@@ -103,23 +216,50 @@ public class AuthService {
         }
 
         log.info("User logged in successfully: {}", request.getEmail());
-        return new AuthResponse(jwtService.generateToken(user), user.getStatus().toString());
+        Map<String, Object> claims = jwtService.claimsOf(user);
+        return new AuthResponse(jwtService.generateToken(user.getUsername(), claims), user.getStatus().toString(),
+                refreshTokenService.issue(user.getUsername(), claims));
+    }
+
+    private UserInfoDetails authenticate(LoginRequest request) {
+        try {
+            // The provider hands back the user it loaded for the password check; reuse it
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+            return (UserInfoDetails) authentication.getPrincipal();
+        } catch (BadCredentialsException e) {
+            log.warn("Login failed: Invalid credentials for email: {}", request.getEmail());
+            throw new InvalidOtpException("Invalid email or password.");
+        }
+    }
+
+    // No password check or user lookup: the session in Redis already vouches for the user
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.RefreshedSession session = refreshTokenService.refresh(refreshToken);
+        log.debug("Access token refreshed for {}", session.email());
+        return new AuthResponse(jwtService.generateToken(session.email(), session.claims()),
+                String.valueOf(session.claims().get("status")), session.refreshToken());
+    }
+
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     @SendNotification(topic = "notification.otp", eventType = "OTP_PASSWORD_RESET")
-    public OtpService.OtpEvent forgotPassword(String email) {
+    public OtpService.OtpEvent forgotPassword(String email, String clientIp) {
         log.info("Password reset requested for email: {}", email);
-        if (!userRepository.existsByEmail(email)) {
+        if (!emailBloomFilter.exists(email, userRepository::existsByEmail)) {
             log.warn("Forgot password failed: Email {} not found.", email);
             throw new ResourceNotFoundException("User not found with this email.");
         }
-        return otpService.generateAndSendOtp(email);
+        return otpService.generateAndSendOtp(email, clientIp);
     }
 
     @SendNotification(topic = "notification.otp", eventType = "OTP_EMAIL_VERIFICATION")
-    public OtpService.OtpEvent verifyEmail(String email) {
+    public OtpService.OtpEvent verifyEmail(String email, String clientIp) {
         log.info("Email verification requested for: {}", email);
-        return otpService.generateAndSendOtp(email);
+        return otpService.generateAndSendOtp(email, clientIp);
     }
 
     @Transactional
@@ -132,44 +272,60 @@ public class AuthService {
             throw new InvalidOtpException("Invalid or Expired OTP.");
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    log.error("Password reset failed: User not found for email: {}", email);
-                    return new ResourceNotFoundException("User not found.");
-                });
-
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordChangeRequired(false);
-        userRepository.save(user);
+        if (userRepository.updatePassword(email, passwordEncoder.encode(newPassword)) == 0) {
+            log.error("Password reset failed: User not found for email: {}", email);
+            throw new ResourceNotFoundException("User not found.");
+        }
+        userDetailsCache.evict(email);
+        refreshTokenService.revokeAll(email);
         log.info("Password reset successfully for email: {}", email);
 
         return "Password reset successfully. You can now login.";
     }
 
     @Transactional
-    @SendNotification(topic = "notification.user", eventType = "ADMIN_USER_CREATED")
+    // The event carries the temporary password, so it is sent after the commit instead of via the outbox
+    @SendNotification(topic = "notification.user", eventType = "ADMIN_USER_CREATED", outbox = false)
     public User createAdminUser(SignupRequest request) {
         log.info("Creating admin user with email: {} and role: {}", request.getEmail(), request.getRole());
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (emailBloomFilter.exists(request.getEmail(), userRepository::existsByEmail)) {
             log.warn("Admin creation failed: Email {} already exists.", request.getEmail());
             throw new DuplicateResourceException("Email already exists");
         }
 
+        // The college/department an admin manages; their token claims scope the admin endpoints
         User user = User.builder()
                 .email(request.getEmail())
                 .password(passwordEncoder.encode(request.getPassword()))
+                .collegeId(request.getCollegeId())
+                .departmentId(request.getDepartmentId())
                 .role(request.getRole())
                 .status(AccountStatus.APPROVED)
                 .isEmailVerified(true)
                 .isPasswordChangeRequired(true)
                 .build();
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveNew(user);
         log.info("Admin user created successfully: {}", savedUser.getEmail());
         return savedUser;
     }
 
+    // The bloom filter learns of other instances' signups through Kafka, so for a moment it can call a
+    // just-registered email absent; the unique constraint still catches that
+    private User saveNew(User user) {
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Insert failed: Email {} already exists.", user.getEmail());
+            throw new DuplicateResourceException("Email already exists.");
+        }
+        emailBloomFilter.add(savedUser.getEmail());
+        return savedUser;
+    }
+
     @Transactional
+    @SendNotification(topic = "notification.user", eventType = "PASSWORD_CHANGED")
     public void changePassword(String email, String oldPassword, String newPassword) {
         log.info("Attempting to change password for email: {}", email);
         try {
@@ -179,13 +335,12 @@ public class AuthService {
             throw new InvalidOtpException("Incorrect old password.");
         }
 
-        User user = userRepository.findByEmail(email).orElseThrow(() -> {
+        if (userRepository.updatePassword(email, passwordEncoder.encode(newPassword)) == 0) {
             log.error("Change password failed: User not found for email: {}", email);
-            return new ResourceNotFoundException("User not found.");
-        });
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordChangeRequired(false);
-        userRepository.save(user);
+            throw new ResourceNotFoundException("User not found.");
+        }
+        userDetailsCache.evict(email);
+        refreshTokenService.revokeAll(email);
         log.info("Password changed successfully for email: {}", email);
     }
 }
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.authService.services;
+
+import com.authService.DTO.AdminScope;
+import com.authService.DTO.BulkImportResponse;
+import com.authService.DTO.BulkImportResponse.RowResult;
+import com.authService.DTO.BulkImportRow;
+import com.authService.DTO.NotificationEvent;
+import com.authService.config.BoundedPasswordEncoder;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
+import com.authService.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates many users from a CSV (with a header row) or NDJSON stream.
+ * <p>
+ * Rows are read one at a time and handled in batches of {@code auth.import.batch-size}: one query
+ * finds the emails that already exist, passwords are hashed in parallel on the BCrypt pool, the
+ * batch is inserted with a single JDBC batch, and one USERS_IMPORTED outbox event covers it. Imported
+ * users start PENDING, like a signup, and must change the password they were given.
+ * <p>
+ * Rows are confined to the importing admin's {@link AdminScope}: a missing college or department is
+ * filled in from it, a different one makes the row INVALID.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO users (email, password, enrollment_no, college_id, department_id, role, status,
+                               is_email_verified, is_password_change_required)
+            VALUES (?, ?, ?, ?, ?, ?, ?, false, true)
+            ON CONFLICT (email) DO NOTHING
+            """;
+
+    private final UserRepository userRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final EmailBloomFilter emailBloomFilter;
+
+    @Value("${auth.import.batch-size:500}")
+    private int batchSize;
+
+    public BulkImportResponse importUsers(InputStream body, boolean ndjson, AdminScope scope) throws IOException {
+        List<RowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = null;
+        int rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!ndjson && header == null) {
+                header = splitCsv(line).stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+                continue;
+            }
+            rowNumber++;
+
+            BulkImportRow row;
+            try {
+                row = ndjson ? objectMapper.readValue(line, BulkImportRow.class) : csvRow(header, line);
+            } catch (Exception e) {
+                results.add(new RowResult(rowNumber, null, "INVALID", "Unreadable row: " + e.getMessage()));
+                continue;
+            }
+            String problem = validate(row, scope);
+            if (problem != null) {
+                results.add(new RowResult(rowNumber, row.getEmail(), "INVALID", problem));
+                continue;
+            }
+            if (!seenEmails.add(row.getEmail())) {
+                results.add(new RowResult(rowNumber, row.getEmail(), "DUPLICATE", "Email repeated in this file."));
+                continue;
+            }
+
+            batch.add(new PendingRow(rowNumber, row));
+            if (batch.size() >= batchSize) {
+                insertBatch(batch, results);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, results);
+        }
+
+        results.sort(Comparator.comparingInt(RowResult::getRow));
+        int created = (int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count();
+        int duplicates = (int) results.stream().filter(r -> "DUPLICATE".equals(r.getStatus())).count();
+        log.info("Bulk import finished: {} rows, {} created, {} duplicates, {} invalid",
+                rowNumber, created, duplicates, rowNumber - created - duplicates);
+        return new BulkImportResponse(created, duplicates, rowNumber - created - duplicates, results);
+    }
+
+    private void insertBatch(List<PendingRow> batch, List<RowResult> results) {
+        Set<String> existing = userRepository.findExistingEmails(batch.stream().map(p -> p.row().getEmail()).toList());
+        List<PendingRow> fresh = new ArrayList<>(batch.size());
+        for (PendingRow pending : batch) {
+            if (existing.contains(pending.row().getEmail())) {
+                results.add(new RowResult(pending.number(), pending.row().getEmail(), "DUPLICATE", "Email already exists."));
+            } else {
+                fresh.add(pending);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(fresh.stream().map(p -> p.row().getPassword()).toList());
+        List<Object[]> args = new ArrayList<>(fresh.size());
+        for (int i = 0; i < fresh.size(); i++) {
+            BulkImportRow row = fresh.get(i).row();
+            args.add(new Object[]{row.getEmail(), hashes.get(i), row.getEnrollmentNo(), row.getCollegeId(),
+                    row.getDepartmentId(), row.getRole().name(), AccountStatus.PENDING.name()});
+        }
+        List<BulkImportRow> created = new ArrayList<>(fresh.size());
+        int[] counts = transactionTemplate.execute(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, args);
+            for (int i = 0; i < fresh.size(); i++) {
+                // 0 = someone registered the same email between the check and the insert
+                if (inserted[i] != 0) {
+                    created.add(fresh.get(i).row());
+                }
+            }
+            enqueueImported(created);
+            return inserted;
+        });
+
+        for (int i = 0; i < fresh.size(); i++) {
+            PendingRow pending = fresh.get(i);
+            if (counts != null && counts[i] == 0) {
+                results.add(new RowResult(pending.number(), pending.row().getEmail(), "DUPLICATE", "Email already exists."));
+            } else {
+                emailBloomFilter.add(pending.row().getEmail());
+                results.add(new RowResult(pending.number(), pending.row().getEmail(), "CREATED", null));
+            }
+        }
+    }
+
+    // One event per batch instead of one USER_REGISTERED per user, in the batch's transaction
+    private void enqueueImported(List<BulkImportRow> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> users = new ArrayList<>(created.size());
+        for (BulkImportRow row : created) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("userEmail", row.getEmail());
+            user.put("departmentId", row.getDepartmentId());
+            user.put("enrollmentNo", row.getEnrollmentNo());
+            users.add(user);
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("users", users);
+
+        NotificationEvent event = NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("USERS_IMPORTED")
+                .timestamp(LocalDateTime.now())
+                .priority("LOW")
+                .payload(payload)
+                .build();
+        try {
+            outboxService.enqueue("notification.user", event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize USERS_IMPORTED event", e);
+        }
+    }
+
+    static String validate(BulkImportRow row, AdminScope scope) {
+        if (row.getEmail() == null || !row.getEmail().contains("@")) {
+            return "A valid email is required.";
+        }
+        if (row.getPassword() == null || row.getPassword().isBlank()) {
+            return "Password is required.";
+        }
+        if (scope.collegeId() != null) {
+            if (row.getCollegeId() == null) {
+                row.setCollegeId(scope.collegeId());
+            } else if (!scope.collegeId().equals(row.getCollegeId())) {
+                return "collegeId is outside your college.";
+            }
+        }
+        if (scope.departmentId() != null) {
+            if (row.getDepartmentId() == null) {
+                row.setDepartmentId(scope.departmentId());
+            } else if (!scope.departmentId().equals(row.getDepartmentId())) {
+                return "departmentId is outside your department.";
+            }
+        }
+        if (row.getDepartmentId() == null) {
+            return "departmentId is required.";
+        }
+        if (row.getRole() == null) {
+            row.setRole(Role.STUDENT);
+        } else if (row.getRole() != Role.STUDENT && row.getRole() != Role.FACULTY) {
+            return "Only STUDENT and FACULTY users can be imported.";
+        }
+        row.setEmail(row.getEmail().trim());
+        return null;
+    }
+
+    private static BulkImportRow csvRow(List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).trim();
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        BulkImportRow row = new BulkImportRow();
+        row.setEmail(fields.get("email"));
+        row.setPassword(fields.get("password"));
+        row.setEnrollmentNo(fields.get("enrollmentno"));
+        row.setCollegeId(fields.get("collegeid") == null ? null : Long.valueOf(fields.get("collegeid")));
+        row.setDepartmentId(fields.get("departmentid") == null ? null : Long.valueOf(fields.get("departmentid")));
+        row.setRole(fields.get("role") == null ? null : Role.valueOf(fields.get("role").toUpperCase(Locale.ROOT)));
+        return row;
+    }
+
+    // Comma-separated, with "double quotes" around values that contain commas ("" is a literal quote)
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(int number, BulkImportRow row) {
+    }
+}
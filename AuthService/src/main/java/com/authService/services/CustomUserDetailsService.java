@@ -4,22 +4,35 @@ import com.authService.entities.User;
 import com.authService.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // Converts your User entity to Spring Security's UserDetails; misses are not cached
+        return userDetailsCache.get(email, key -> new UserInfoDetails(userRepository.findByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + key))));
+    }
 
-        // Converts your User entity to Spring Security's UserDetails
+    // Called by DaoAuthenticationProvider when rehash-on-login finds a hash below the current BCrypt strength
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userDetailsCache.evict(user.getEmail());
         return new UserInfoDetails(user);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package com.authService.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * In-memory bloom filter of registered emails, so lookups for addresses that were never registered
+ * (bot traffic on forgot-password, fresh signups) skip Postgres.
+ * <p>
+ * Built by streaming {@code users.email} at startup and every {@code auth.email-bloom.rebuild-interval-ms},
+ * then kept current by {@link #add} on local inserts and by the registration events other instances
+ * publish. Until the first load finishes every email counts as "maybe present", so callers still ask
+ * the database. A "maybe" that the database answers "no" is a false positive and is counted.
+ * <p>
+ * The event consumer joins after the scan may have started, so on partition assignment it rewinds to
+ * {@code auth.email-bloom.replay-margin} before the latest scan began: a registration committed between
+ * the scan's snapshot and the assignment is replayed rather than missed. Adding an email twice is harmless.
+ */
+@Component
+@Slf4j
+public class EmailBloomFilter implements ConsumerSeekAware {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    @Value("${auth.email-bloom.expected-emails:1000000}")
+    private long expectedEmails;
+
+    @Value("${auth.email-bloom.false-positive-rate:0.01}")
+    private double targetFpp;
+
+    // Covers the gap between an event's timestamp (the change) and its commit, plus clock skew
+    @Value("${auth.email-bloom.replay-margin:5m}")
+    private Duration replayMargin;
+
+    // Start of the latest scan; everything committed before it is in the filter (startup until the first)
+    private volatile long scanStartedMillis = System.currentTimeMillis();
+
+    private volatile Bits current;
+    // Set while a rebuild streams the table, so inserts made meanwhile reach the new filter too
+    private volatile Bits building;
+
+    public EmailBloomFilter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        // Own template: the fetch size must not leak into the shared one
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.absent = checks(meterRegistry, "absent");
+        this.maybe = checks(meterRegistry, "maybe");
+        this.falsePositives = Counter.builder("auth.email.bloom.false.positives")
+                .description("'Maybe present' answers the database then found absent")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.bloom.expected.fpp", this, f -> f.current == null ? 1.0 : f.current.expectedFpp())
+                .description("False-positive rate expected from the filter's current fill")
+                .register(meterRegistry);
+        Gauge.builder("auth.email.bloom.entries", this, f -> f.current == null ? 0 : f.current.entries.get())
+                .description("Emails added to the filter since its last build")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the email is registered. Asks {@code database} only when the filter cannot rule it out.
+     */
+    public boolean exists(String email, Predicate<String> database) {
+        Bits bits = current;
+        if (bits != null && !bits.mightContain(email)) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        boolean exists = database.test(email);
+        if (!exists && bits != null) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    public void add(String email) {
+        // Read building before current: rebuild publishes current before clearing building, so a swap
+        // between the two reads still leaves the email in whichever filter ends up as current
+        Bits next = building;
+        if (next != null) {
+            next.add(email);
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.add(email);
+        }
+    }
+
+    // Runs once at startup, then periodically: resizes for growth and drops bits of deleted users
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.email-bloom.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Bits previous = current;
+            long expected = Math.max(expectedEmails, previous == null ? 0 : previous.entries.get() * 2);
+            Bits next = new Bits(expected, targetFpp);
+            long scanStarted = System.currentTimeMillis();
+            building = next;
+            // Postgres only honours the fetch size (streams instead of buffering) inside a transaction
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query("select email from users", rs -> {
+                        next.add(rs.getString(1));
+                    }));
+            current = next;
+            scanStartedMillis = scanStarted;
+            log.info("Email bloom filter built: {} emails, {} bits, {} hashes in {} ms", next.entries.get(),
+                    next.size, next.hashes, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.error("❌ Email bloom filter rebuild failed, keeping the previous one: {}", e.getMessage(), e);
+        } finally {
+            building = null;
+        }
+    }
+
+    // Registrations committed on other instances; own group per instance so every node sees them all
+    @KafkaListener(topics = "notification.user", groupId = "auth-email-bloom-${random.uuid}",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void onUserEvent(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            switch (event.path("eventType").asText()) {
+                case "USER_REGISTERED" -> addIfText(event.path("payload").path("userEmail"));
+                case "ADMIN_USER_CREATED" -> addIfText(event.path("targetEmail"));
+                case "USERS_IMPORTED" -> event.path("payload").path("users")
+                        .forEach(user -> addIfText(user.path("userEmail")));
+                default -> { }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read user event for the email bloom filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), scanStartedMillis - replayMargin.toMillis());
+    }
+
+    private void addIfText(JsonNode email) {
+        if (email.isTextual()) {
+            add(email.asText());
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.email.bloom.checks")
+                .tag("result", result)
+                .description("Email existence checks, by filter answer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The bit array. Lock-free: bits are only ever set, with CAS on the containing word.
+     */
+    static final class Bits {
+
+        final long size;
+        final int hashes;
+        final AtomicLong entries = new AtomicLong();
+        private final AtomicLongArray words;
+
+        Bits(long expected, double fpp) {
+            long bits = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+        }
+
+        void add(String email) {
+            long h1 = hash(email);
+            long h2 = fmix64(h1 + 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                } while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask));
+            }
+            entries.incrementAndGet();
+        }
+
+        boolean mightContain(String email) {
+            long h1 = hash(email);
+            long h2 = fmix64(h1 + 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            return Math.pow(1 - Math.exp(-(double) hashes * entries.get() / size), hashes);
+        }
+
+        // FNV-1a over the UTF-16 chars, finished with murmur3's fmix64 for avalanche
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return fmix64(h);
+        }
+
+        private static long fmix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53e2b4fL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
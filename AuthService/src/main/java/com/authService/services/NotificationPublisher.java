@@ -0,0 +1,81 @@
+package com.authService.services;
+
+import com.authService.DTO.NotificationEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one place AuthService hands records to Kafka. Every record about a user is keyed by their
+ * email, so one user's OTP, registration and status events share a partition and are consumed
+ * in order. Counts records per topic and outcome as {@code auth.kafka.records{topic,result}};
+ * the producer's own per-topic rates and batch sizes are under {@code kafka.producer.*}.
+ * <p>
+ * Events from transactional methods go through OutboxService and reach here via OutboxRelay.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    // Always the email, never the user id: events keyed either way would split one user over two partitions
+    public static String keyOf(NotificationEvent event) {
+        return event.getTargetEmail();
+    }
+
+    public void publish(String topic, NotificationEvent event) throws JsonProcessingException {
+        String jsonMessage = objectMapper.writeValueAsString(event);
+
+        // Send & Handle Async Callback (Crucial for Production)
+        send(topic, keyOf(event), jsonMessage).whenComplete((sendResult, exception) -> {
+            if (exception == null) {
+                log.info("✅ Kafka Published: [{}] on topic [{}] for [{}]",
+                        event.getEventType(), topic, event.getTargetEmail());
+            } else {
+                log.error("❌ Kafka Delivery Failed: [{}] for [{}]. Reason: {}",
+                        event.getEventType(), event.getTargetEmail(), exception.getMessage());
+            }
+        });
+    }
+
+    // A null key spreads the record round-robin; use it only for events with no single target
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String jsonMessage) {
+        return send(topic, key, jsonMessage, null);
+    }
+
+    /**
+     * @param timestamp record timestamp in epoch millis; null stamps the send time. Consumers that
+     *                  compare it with token issue times (gateway revocation) need the time of the change.
+     */
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String jsonMessage, Long timestamp) {
+        CompletableFuture<SendResult<String, String>> future =
+                kafkaTemplate.send(new ProducerRecord<>(topic, null, timestamp, key, jsonMessage));
+        future.whenComplete((sendResult, exception) ->
+                counter(topic, exception == null ? "success" : "failure").increment());
+        return future;
+    }
+
+    private Counter counter(String topic, String result) {
+        return counters.computeIfAbsent(topic + '|' + result, k -> Counter.builder("auth.kafka.records")
+                .tag("topic", topic)
+                .tag("result", result)
+                .description("Records handed to Kafka, by topic and delivery outcome")
+                .register(meterRegistry));
+    }
+}
@@ -1,16 +1,22 @@
 package com.authService.services;
 
 
-import com.authService.AOP.SendNotification;
+import com.authService.exceptions.OtpThrottledException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.Random;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +25,88 @@ public class OtpService {
 
     private final StringRedisTemplate redisTemplate;
     private static final long OTP_EXPIRATION_MINUTES = 5;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // KEYS[1] otp, KEYS[2] attempts, KEYS[3] cooldown, KEYS[4] per-email sliding window, all hash-tagged
+    // to one cluster slot; ARGV[1] code, ARGV[2] ttl ms, ARGV[3] now ms, ARGV[4] cooldown ms, ARGV[5] window ms,
+    // ARGV[6] request id, ARGV[7] limit. Returns 0 when the code was stored, else the ms to wait.
+    // Checks and the store are one step, so a burst of clicks yields exactly one code and one email.
+    private static final RedisScript<Long> ISSUE_OTP = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[3])
+            local window = tonumber(ARGV[5])
+            local cooldown = redis.call('PTTL', KEYS[3])
+            if cooldown > 0 then
+              return cooldown
+            end
+            redis.call('ZREMRANGEBYSCORE', KEYS[4], '-inf', now - window)
+            if redis.call('ZCARD', KEYS[4]) >= tonumber(ARGV[7]) then
+              local oldest = redis.call('ZRANGE', KEYS[4], 0, 0, 'WITHSCORES')
+              return math.max(tonumber(oldest[2]) + window - now, 1)
+            end
+            redis.call('ZADD', KEYS[4], now, ARGV[6])
+            redis.call('PEXPIRE', KEYS[4], window)
+            redis.call('SET', KEYS[3], '1', 'PX', ARGV[4])
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            redis.call('DEL', KEYS[2])
+            return 0
+            """, Long.class);
+
+    // KEYS[1] sliding window; ARGV[1] now ms, ARGV[2] window ms, ARGV[3] limit, ARGV[4] request id.
+    // Records the request and returns 0 when under the limit, else the ms to wait. Runs on its own
+    // because the per-IP key lives in a different cluster slot than the email's keys.
+    private static final RedisScript<Long> RATE_WINDOW = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local window = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[3]) then
+              local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+              return math.max(tonumber(oldest[2]) + window - now, 1)
+            end
+            redis.call('ZADD', KEYS[1], now, ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], window)
+            return 0
+            """, Long.class);
+
+    // KEYS[1] otp, KEYS[2] attempts; ARGV[1] input, ARGV[2] max attempts.
+    // 1 = match (consumed), 0 = wrong, -1 = no code, -2 = wrong and the code is now burned.
+    // Compare and delete happen in one step, so two concurrent requests cannot both use a code.
+    private static final RedisScript<Long> VALIDATE_OTP = new DefaultRedisScript<>("""
+            local otp = redis.call('GET', KEYS[1])
+            if not otp then
+              return -1
+            end
+            if otp == ARGV[1] then
+              redis.call('DEL', KEYS[1], KEYS[2])
+              return 1
+            end
+            local attempts = redis.call('INCR', KEYS[2])
+            if attempts == 1 then
+              redis.call('PEXPIRE', KEYS[2], math.max(redis.call('PTTL', KEYS[1]), 1))
+            end
+            if attempts >= tonumber(ARGV[2]) then
+              redis.call('DEL', KEYS[1], KEYS[2])
+              return -2
+            end
+            return 0
+            """, Long.class);
+
+    // Wrong guesses allowed per code before it is invalidated
+    @Value("${auth.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    // Minimum gap between two codes for the same email
+    @Value("${auth.otp.resend-cooldown:60s}")
+    private Duration resendCooldown;
+
+    @Value("${auth.otp.rate-window:1h}")
+    private Duration rateWindow;
+
+    // Codes allowed per rate-window, per email and per client IP
+    @Value("${auth.otp.max-per-email:5}")
+    private int maxPerEmail;
+
+    @Value("${auth.otp.max-per-ip:20}")
+    private int maxPerIp;
 
     // Helper class to pass data to AOP
     @Data
@@ -29,15 +117,38 @@ public class OtpService {
     }
 
 
-        /**
-        * Generates a 6-digit OTP, stores it in Redis with a TTL, and returns an event for AOP to handle.
-        */
-    public OtpEvent generateAndSendOtp(String email) {
+    /**
+     * Generates a 6-digit OTP, stores it in Redis with a TTL, and returns an event for AOP to handle.
+     * Throws {@link OtpThrottledException} inside the resend cooldown or over the rate limits, so no
+     * event (and no email) goes out.
+     *
+     * @param clientIp caller's address for the per-IP limit; null skips it
+     */
+    public OtpEvent generateAndSendOtp(String email, String clientIp) {
         log.info("Generating OTP for email: {}", email);
-        String otp = String.format("%06d", new Random().nextInt(999999));
+        String otp = String.format("%06d", RANDOM.nextInt(1_000_000));
+
+        String now = String.valueOf(System.currentTimeMillis());
+        String window = String.valueOf(rateWindow.toMillis());
+        String requestId = UUID.randomUUID().toString();
+
+        // The per-IP window spans emails, so it is checked first in its own call
+        String ipKey = clientIp == null ? null : "otp:rate:ip:" + clientIp;
+        if (ipKey != null) {
+            throttleIfWaiting(redisTemplate.execute(RATE_WINDOW, List.of(ipKey),
+                    now, window, String.valueOf(maxPerIp), requestId), email, clientIp);
+        }
 
-        // Efficient Storage: Key = "otp:email", Value = code, TTL = 5 mins
-        redisTemplate.opsForValue().set("otp:" + email, otp, OTP_EXPIRATION_MINUTES, TimeUnit.MINUTES);
+        // Efficient Storage: Key = "otp:{email}:code", Value = code, TTL = 5 mins
+        Long waitMillis = redisTemplate.execute(ISSUE_OTP,
+                List.of(otpKey(email), attemptsKey(email), key(email, "cooldown"), key(email, "rate")),
+                otp, String.valueOf(TimeUnit.MINUTES.toMillis(OTP_EXPIRATION_MINUTES)), now,
+                String.valueOf(resendCooldown.toMillis()), window, requestId, String.valueOf(maxPerEmail));
+        if (ipKey != null && waitMillis != null && waitMillis > 0) {
+            // Nothing was sent, so give the IP its slot back
+            redisTemplate.opsForZSet().remove(ipKey, requestId);
+        }
+        throttleIfWaiting(waitMillis, email, clientIp);
         log.info("OTP stored in Redis for email: {} with TTL: {} minutes", email, OTP_EXPIRATION_MINUTES);
 
         // Return event for AOP to handle the Kafka message
@@ -45,20 +156,47 @@ public class OtpService {
     }
 
     /**
-     * Validates the OTP.
+     * Validates the OTP in a single Redis round trip; a match consumes it.
      * @return true if valid, false otherwise
      */
     public boolean validateOtp(String email, String otpInput) {
         log.info("Validating OTP for email: {}", email);
-        String key = "otp:" + email;
-        String cachedOtp = redisTemplate.opsForValue().get(key);
+        if (otpInput == null) {
+            return false;
+        }
+        Long result = redisTemplate.execute(VALIDATE_OTP, List.of(otpKey(email), attemptsKey(email)),
+                otpInput, String.valueOf(maxAttempts));
 
-        if (cachedOtp != null && cachedOtp.equals(otpInput)) {
+        if (result != null && result == 1) {
             log.info("OTP validation successful for email: {}", email);
-            redisTemplate.delete(key); // Cleanup immediately after use
             return true;
         }
-        log.warn("OTP validation failed for email: {}", email);
+        if (result != null && result == -2) {
+            log.warn("OTP for email: {} invalidated after {} failed attempts", email, maxAttempts);
+        } else {
+            log.warn("OTP validation failed for email: {}", email);
+        }
         return false;
     }
-}
\ No newline at end of file
+
+    private static void throttleIfWaiting(Long waitMillis, String email, String clientIp) {
+        if (waitMillis != null && waitMillis > 0) {
+            long seconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+            log.warn("OTP request throttled for email: {} (ip {}), retry in {}s", email, clientIp, seconds);
+            throw new OtpThrottledException("Please wait " + seconds + " seconds before requesting another OTP.", seconds);
+        }
+    }
+
+    // The {email} hash tag keeps every per-email key in one Redis Cluster slot, so the scripts can touch them together
+    private static String key(String email, String suffix) {
+        return "otp:{" + email + "}:" + suffix;
+    }
+
+    private static String otpKey(String email) {
+        return key(email, "code");
+    }
+
+    private static String attemptsKey(String email) {
+        return key(email, "attempts");
+    }
+}
@@ -0,0 +1,185 @@
+package com.authService.services;
+
+import com.authService.entities.OutboxEvent;
+import com.authService.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka in the background.
+ * <p>
+ * Each pass claims up to {@code auth.outbox.batch-size} unsent rows in a short transaction: it locks
+ * them with SKIP LOCKED, stamps a lease of {@code auth.outbox.claim-lease} and commits. Instances take
+ * turns claiming and skip keys that still have an earlier row in flight elsewhere, so several can relay
+ * side by side without reordering a key's events. The sends run after that, without row locks or a
+ * database connection, and wait for the acks up to one {@code auth.outbox.send-timeout} for the whole
+ * batch. A key's rows go out one after another, each once the previous one is acked; when a row fails,
+ * it and the later rows of its key are released and retried next pass, in order. Acked rows are marked
+ * sent. Rows of an instance that died mid-send are picked up once their lease runs out, so delivery is
+ * at-least-once.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSize;
+    private final Counter published;
+    private final Counter failed;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${auth.outbox.batch-size:200}")
+    private int maxBatch;
+
+    @Value("${auth.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    // Must outlast send-timeout, or a slow batch could be claimed and sent again by another instance
+    @Value("${auth.outbox.claim-lease:1m}")
+    private Duration claimLease;
+
+    @Value("${auth.outbox.retention:7d}")
+    private Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, NotificationPublisher notificationPublisher,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = DistributionSummary.builder("auth.outbox.batch.size")
+                .description("Outbox rows sent per relay pass")
+                .register(meterRegistry);
+        this.published = Counter.builder("auth.outbox.published")
+                .description("Outbox rows delivered to Kafka")
+                .register(meterRegistry);
+        this.failed = Counter.builder("auth.outbox.failed")
+                .description("Outbox sends that failed and will be retried")
+                .register(meterRegistry);
+        Gauge.builder("auth.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age in seconds of the oldest unsent outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            // Keep going while batches come back full, then wait for the next tick
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent >= maxBatch);
+
+            lagMillis.set(outboxEventRepository.findFirstBySentAtIsNullOrderByIdAsc()
+                    .map(oldest -> Math.max(0, Instant.now().toEpochMilli() - oldest.getCreatedAt().toEpochMilli()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.error("❌ Outbox relay pass failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> rows = transactionTemplate.execute(status -> {
+            if (!outboxEventRepository.tryLockClaims()) {
+                return List.<OutboxEvent>of();
+            }
+            List<OutboxEvent> unclaimed = outboxEventRepository.lockUnclaimed(now, maxBatch);
+            if (!unclaimed.isEmpty()) {
+                outboxEventRepository.claim(unclaimed.stream().map(OutboxEvent::getId).toList(), now.plus(claimLease));
+            }
+            return unclaimed;
+        });
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        // Rows without a key have no order to keep, so each one is its own queue
+        Map<Object, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent row : rows) {
+            Object key = row.getMessageKey() != null ? row.getMessageKey() : row.getId();
+            byKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(row);
+        }
+
+        // One deadline for the batch: a broker outage costs one send-timeout per pass, not one per row
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> delivered = new ArrayList<>(rows.size());
+        List<Long> undelivered = new ArrayList<>();
+        boolean interrupted = false;
+        while (!byKey.isEmpty() && !interrupted) {
+            // Each wave sends the oldest pending row of every key, so different keys still go out together
+            List<Object> keys = new ArrayList<>(byKey.keySet());
+            List<CompletableFuture<?>> futures = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                OutboxEvent row = byKey.get(key).peek();
+                // Stamped with the time of the change, not of the send: the gateway revokes tokens issued before it
+                futures.add(notificationPublisher.send(row.getTopic(), row.getMessageKey(), row.getPayload(),
+                        row.getCreatedAt().toEpochMilli()));
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                Deque<OutboxEvent> pending = byKey.get(keys.get(i));
+                OutboxEvent row = pending.peek();
+                try {
+                    futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    delivered.add(pending.poll().getId());
+                    if (pending.isEmpty()) {
+                        byKey.remove(keys.get(i));
+                    }
+                } catch (InterruptedException e) {
+                    // The rest stay claimed until the lease runs out
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    break;
+                } catch (Exception e) {
+                    // Later rows of this key wait for it, so they cannot overtake it on the next pass
+                    failed.increment();
+                    pending.forEach(held -> undelivered.add(held.getId()));
+                    byKey.remove(keys.get(i));
+                    log.warn("Outbox row {} not delivered to [{}], will retry with {} later rows of its key: {}",
+                            row.getId(), row.getTopic(), pending.size() - 1, e.getMessage());
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markSent(delivered, Instant.now());
+            }
+            if (!undelivered.isEmpty()) {
+                outboxEventRepository.release(undelivered);
+            }
+        });
+        batchSize.record(rows.size());
+        published.increment(delivered.size());
+        return delivered.size();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.cleanup-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} sent outbox rows", deleted);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.authService.services;
+
+import com.authService.DTO.NotificationEvent;
+import com.authService.entities.OutboxEvent;
+import com.authService.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues notification events in the outbox table. Must be called inside the caller's transaction,
+ * so an event exists exactly when the change it describes was committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, NotificationEvent event) throws JsonProcessingException {
+        outboxEventRepository.save(toRow(topic, event, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String topic, List<NotificationEvent> events) throws JsonProcessingException {
+        Instant now = Instant.now();
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            rows.add(toRow(topic, event, now));
+        }
+        outboxEventRepository.saveAll(rows);
+    }
+
+    private OutboxEvent toRow(String topic, NotificationEvent event, Instant now) throws JsonProcessingException {
+        return OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(NotificationPublisher.keyOf(event))
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.authService.services;
+
+import com.authService.exceptions.InvalidRefreshTokenException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opaque refresh tokens kept in Redis, so renewing an access token is one script call instead of
+ * a BCrypt check and database reads.
+ * <p>
+ * Keys (tokens are stored only as SHA-256 digests; {@code <tag>} is derived from the email):
+ * <ul>
+ *   <li>{@code refresh:{<tag>}:token:<digest>} holds "email\nsessionStartMillis\nclaimsJson" with a sliding TTL,
+ *       or "!email" once the token has been used (a tombstone kept for one more TTL).</li>
+ *   <li>{@code refresh:{<tag>}:user} is the set of the user's live token digests, for revoking them all.</li>
+ * </ul>
+ * The tag is also the token's prefix ("tag.random"), so a refresh can name the user's set without
+ * knowing the email. It is a Redis Cluster hash tag: all of one user's keys share a slot, so the
+ * scripts also work on a cluster. The token keys they delete on a revoke come from the set, so they
+ * are not in KEYS, but they are in the same slot.
+ * <p>
+ * Each refresh rotates the token. Presenting a used token again means it was copied, so every
+ * session of that user is revoked. The claims snapshot is safe to reuse because status and
+ * password changes revoke the user's tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // KEYS[1] token, KEYS[2] user set; ARGV[1] value, ARGV[2] digest, ARGV[3] ttl ms, ARGV[4] max session ms
+    private static final RedisScript<Long> ISSUE = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            redis.call('SADD', KEYS[2], ARGV[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            return 1
+            """, Long.class);
+
+    // KEYS[1] presented token, KEYS[2] replacement, KEYS[3] user set; ARGV[1] presented digest,
+    // ARGV[2] new digest, ARGV[3] ttl ms, ARGV[4] max session ms, ARGV[5] now ms, ARGV[6] token key prefix.
+    // Returns {1, value} when rotated, {0} when unknown/expired, {2, email} when a used token came back.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+              return {0}
+            end
+            if string.sub(value, 1, 1) == '!' then
+              for _, digest in ipairs(redis.call('SMEMBERS', KEYS[3])) do
+                redis.call('DEL', ARGV[6] .. digest)
+              end
+              redis.call('DEL', KEYS[3])
+              return {2, string.sub(value, 2)}
+            end
+            local first = string.find(value, '\\n', 1, true)
+            local second = string.find(value, '\\n', first + 1, true)
+            local email = string.sub(value, 1, first - 1)
+            local started = tonumber(string.sub(value, first + 1, second - 1))
+            redis.call('SREM', KEYS[3], ARGV[1])
+            if tonumber(ARGV[5]) - started > tonumber(ARGV[4]) then
+              redis.call('DEL', KEYS[1])
+              return {0}
+            end
+            redis.call('SET', KEYS[1], '!' .. email, 'PX', ARGV[3])
+            redis.call('SET', KEYS[2], value, 'PX', ARGV[3])
+            redis.call('SADD', KEYS[3], ARGV[2])
+            redis.call('PEXPIRE', KEYS[3], ARGV[4])
+            return {1, value}
+            """, List.class);
+
+    // KEYS[1] user set; ARGV[1] token key prefix
+    private static final RedisScript<Long> REVOKE_ALL = new DefaultRedisScript<>("""
+            local digests = redis.call('SMEMBERS', KEYS[1])
+            for _, digest in ipairs(digests) do
+              redis.call('DEL', ARGV[1] .. digest)
+            end
+            redis.call('DEL', KEYS[1])
+            return #digests
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Idle limit: a session not refreshed for this long is gone
+    @Value("${auth.refresh.ttl:7d}")
+    private Duration ttl;
+
+    // Hard limit from the original login, however often it is refreshed
+    @Value("${auth.refresh.max-session:30d}")
+    private Duration maxSession;
+
+    public record RefreshedSession(String email, Map<String, Object> claims, String refreshToken) {
+    }
+
+    /**
+     * Starts a session after a successful password login.
+     *
+     * @param claims the access-token claims to reissue on refresh
+     */
+    public String issue(String email, Map<String, Object> claims) {
+        String tag = tagOf(email);
+        String token = newToken(tag);
+        String value = email + '\n' + System.currentTimeMillis() + '\n' + toJson(claims);
+        redisTemplate.execute(ISSUE, List.of(tokenKey(tag, digest(token)), userKey(tag)),
+                value, digest(token), String.valueOf(ttl.toMillis()), String.valueOf(maxSession.toMillis()));
+        return token;
+    }
+
+    /**
+     * Exchanges a refresh token for the session's claims and a new refresh token, in one round trip.
+     */
+    public RefreshedSession refresh(String refreshToken) {
+        String tag = tagOfToken(refreshToken);
+        if (tag == null) {
+            throw new InvalidRefreshTokenException("Session expired. Please log in again.");
+        }
+        String presented = digest(refreshToken);
+        String next = newToken(tag);
+        String nextDigest = digest(next);
+        List<?> result = redisTemplate.execute(ROTATE,
+                List.of(tokenKey(tag, presented), tokenKey(tag, nextDigest), userKey(tag)),
+                presented, nextDigest, String.valueOf(ttl.toMillis()), String.valueOf(maxSession.toMillis()),
+                String.valueOf(System.currentTimeMillis()), tokenKey(tag, ""));
+
+        long outcome = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        if (outcome == 2) {
+            log.warn("Refresh token reuse detected for {}; all of the user's sessions were revoked", result.get(1));
+            throw new InvalidRefreshTokenException("Session is no longer valid. Please log in again.");
+        }
+        if (outcome != 1) {
+            throw new InvalidRefreshTokenException("Session expired. Please log in again.");
+        }
+
+        String value = (String) result.get(1);
+        int first = value.indexOf('\n');
+        int second = value.indexOf('\n', first + 1);
+        return new RefreshedSession(value.substring(0, first), fromJson(value.substring(second + 1)), next);
+    }
+
+    // Logout: ends just this session
+    public void revoke(String refreshToken) {
+        String tag = tagOfToken(refreshToken);
+        if (tag == null) {
+            return;
+        }
+        String digest = digest(refreshToken);
+        String value = redisTemplate.opsForValue().getAndDelete(tokenKey(tag, digest));
+        if (value != null && !value.startsWith("!")) {
+            redisTemplate.opsForSet().remove(userKey(tag), digest);
+        }
+    }
+
+    // Ends every session of the user, e.g. on a password or status change
+    public void revokeAll(String email) {
+        String tag = tagOf(email);
+        Long revoked = redisTemplate.execute(REVOKE_ALL, List.of(userKey(tag)), tokenKey(tag, ""));
+        if (revoked != null && revoked > 0) {
+            log.info("Revoked {} refresh session(s) for {}", revoked, email);
+        }
+    }
+
+    private static String newToken(String tag) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return tag + '.' + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // 16 hex chars of the email's digest: spreads users over slots without putting the email in the token
+    static String tagOf(String email) {
+        return digest(email).substring(0, 16);
+    }
+
+    static String tagOfToken(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        return dot == 16 ? token.substring(0, dot) : null;
+    }
+
+    static String tokenKey(String tag, String digest) {
+        return "refresh:{" + tag + "}:token:" + digest;
+    }
+
+    static String userKey(String tag) {
+        return "refresh:{" + tag + "}:user";
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(Map<String, Object> claims) {
+        try {
+            return objectMapper.writeValueAsString(claims);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize token claims", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() { });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored token claims", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.authService.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived, per-instance cache of {@link UserInfoDetails} by email, so a login burst for the
+ * same accounts does not hit Postgres for every attempt.
+ * <p>
+ * Status and password changes evict the entry on this instance. Other AuthService instances keep
+ * their copy until the TTL runs out, so keep the TTL short. Login does not trust a cached copy on its
+ * own: it re-reads the password hash and status before issuing tokens (see AuthService.login).
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserInfoDetails> cache;
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                            @Value("${auth.user-cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size tagged cache=userDetails
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    public UserInfoDetails get(String email, Function<String, UserInfoDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, again after commit, so a login that read
+     * the old row while the change was in flight cannot leave it cached.
+     */
+    public void evict(String email) {
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.authService.services;
 
 import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,19 +10,49 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.List;
 
+// Immutable snapshot of a User: enough for the credential check, the status checks and the JWT claims.
+// Deliberately not a CredentialsContainer, or ProviderManager would blank the password of the cached copy.
 public class UserInfoDetails implements UserDetails {
 
+    private final Long id;
     private final String email;
     private final String password;
+    private final Role role;
+    private final AccountStatus status;
+    private final boolean passwordChangeRequired;
+    private final String enrollmentNo;
+    private final Long collegeId;
+    private final Long departmentId;
     private final List<GrantedAuthority> authorities;
 
     public UserInfoDetails(User user) {
+        this.id = user.getId();
         this.email = user.getEmail();
         this.password = user.getPassword();
+        this.role = user.getRole();
+        this.status = user.getStatus();
+        this.passwordChangeRequired = user.isPasswordChangeRequired();
+        this.enrollmentNo = user.getEnrollmentNo();
+        this.collegeId = user.getCollegeId();
+        this.departmentId = user.getDepartmentId();
         // Convert Enum Role to Authority
         this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
 
+    public Long getId() { return id; }
+
+    public Role getRole() { return role; }
+
+    public AccountStatus getStatus() { return status; }
+
+    public boolean isPasswordChangeRequired() { return passwordChangeRequired; }
+
+    public String getEnrollmentNo() { return enrollmentNo; }
+
+    public Long getCollegeId() { return collegeId; }
+
+    public Long getDepartmentId() { return departmentId; }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -47,4 +79,4 @@ public class UserInfoDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() { return true; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.authService.AOP;
+
+import com.authService.DTO.NotificationEvent;
+import com.authService.DTO.SignupRequest;
+import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
+import com.authService.services.AuthService;
+import com.authService.services.NotificationPublisher;
+import com.authService.services.OtpService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NotificationEventMappersTests {
+
+    private static final String EMAIL = "a@uit.ac.in";
+
+    @Test
+    void everyUserEventIsKeyedOnTheEmail() {
+        List<String> checked = new ArrayList<>();
+        for (Class<?> type : List.of(AuthService.class, OtpService.class)) {
+            for (Method method : type.getDeclaredMethods()) {
+                SendNotification annotation = method.getAnnotation(SendNotification.class);
+                if (annotation == null) {
+                    continue;
+                }
+                NotificationEvent event = NotificationEvent.builder().payload(Map.of()).build();
+                NotificationEventMappers.mapperFor(method, annotation.eventType())
+                        .populate(event, argsFor(method), resultFor(method));
+                assertEquals(EMAIL, NotificationPublisher.keyOf(event), annotation.eventType() + " key");
+                checked.add(annotation.eventType());
+            }
+        }
+        assertFalse(checked.isEmpty());
+    }
+
+    @Test
+    void theUserIdIsNeverTheKey() {
+        assertNull(NotificationPublisher.keyOf(NotificationEvent.builder().targetUserId(42L).build()));
+    }
+
+    private static Object[] argsFor(Method method) {
+        Object[] args = new Object[method.getParameterCount()];
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < args.length; i++) {
+            if (types[i] == SignupRequest.class) {
+                SignupRequest request = new SignupRequest();
+                request.setEmail(EMAIL);
+                request.setRole(Role.STUDENT);
+                args[i] = request;
+            } else if (types[i] == String.class) {
+                args[i] = EMAIL;
+            }
+        }
+        return args;
+    }
+
+    private static Object resultFor(Method method) {
+        if (method.getReturnType() == User.class) {
+            return User.builder().id(42L).email(EMAIL).status(AccountStatus.PENDING).build();
+        }
+        if (method.getReturnType() == OtpService.OtpEvent.class) {
+            return new OtpService.OtpEvent(EMAIL, "123456");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.authService.DTO;
+
+import com.authService.exceptions.UnauthorizedAccessException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdminScopeTests {
+
+    @Test
+    void scopeFollowsTheRole() {
+        assertEquals(new AdminScope("SUPER_ADMIN", null, null), AdminScope.of("SUPER_ADMIN", "3", "7", "denied"));
+        assertEquals(new AdminScope("COLLEGE_ADMIN", 3L, null), AdminScope.of("COLLEGE_ADMIN", "3", "7", "denied"));
+        assertEquals(new AdminScope("DEPT_ADMIN", 3L, 7L), AdminScope.of("DEPT_ADMIN", "3", "7", "denied"));
+    }
+
+    @Test
+    void nonAdminsAndUnlinkedAdminsAreRefused() {
+        assertEquals("denied", assertThrows(UnauthorizedAccessException.class,
+                () -> AdminScope.of("STUDENT", "3", "7", "denied")).getMessage());
+        assertThrows(UnauthorizedAccessException.class, () -> AdminScope.of(null, null, null, "denied"));
+        assertThrows(UnauthorizedAccessException.class, () -> AdminScope.of("COLLEGE_ADMIN", null, "7", "denied"));
+        assertThrows(UnauthorizedAccessException.class, () -> AdminScope.of("DEPT_ADMIN", "3", "not-a-number", "denied"));
+    }
+
+    @Test
+    void deptAdminsOnlyGetTheirOwnDepartment() {
+        AdminScope dept = new AdminScope("DEPT_ADMIN", 3L, 7L);
+        assertEquals(7L, dept.department(null));
+        assertEquals(7L, dept.department(7L));
+        assertThrows(UnauthorizedAccessException.class, () -> dept.department(8L));
+
+        AdminScope college = new AdminScope("COLLEGE_ADMIN", 3L, null);
+        assertEquals(8L, college.department(8L));
+        assertThrows(IllegalArgumentException.class, () -> college.department(null));
+    }
+}
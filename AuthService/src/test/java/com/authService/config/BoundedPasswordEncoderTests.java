@@ -0,0 +1,125 @@
+package com.authService.config;
+
+import com.authService.exceptions.GlobalExceptionHandler;
+import com.authService.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+    private CountDownLatch started = new CountDownLatch(0);
+    private BoundedPasswordEncoder encoder;
+
+    // "hash:<raw>", blocking on "slow" passwords until the test releases them
+    private final PasswordEncoder delegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashingThreads.add(Thread.currentThread().getName());
+            started.countDown();
+            if (rawPassword.toString().startsWith("slow")) {
+                awaitRelease();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void fullQueueFailsFastWith503() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, false, registry);
+        started = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("slow-running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("slow-queued"));
+        awaitQueueSize(1);
+
+        PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.matches("login", "hash:login"));
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+
+        ResponseEntity<?> response = new GlobalExceptionHandler().handleHashingBusy(busy);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+
+        release.countDown();
+        assertEquals("hash:slow-running", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:slow-queued", queued.get(5, TimeUnit.SECONDS));
+        assertTrue(encoder.matches("login", "hash:login"));
+    }
+
+    @Test
+    void encodeAllKeepsAtMostOneTaskPerWorkerOutstanding() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 2, 10, false, registry);
+        List<String> passwords = List.of("slow-1", "slow-2", "slow-3", "slow-4", "slow-5", "slow-6");
+        started = new CountDownLatch(2);
+
+        CompletableFuture<List<String>> hashes = CompletableFuture.supplyAsync(() -> encoder.encodeAll(passwords));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        // Both workers are busy and nothing more was queued, leaving the queue to logins
+        assertEquals(0.0, registry.get("auth.password.queue.size").gauge().value());
+
+        release.countDown();
+        assertEquals(passwords.stream().map(p -> "hash:" + p).toList(), hashes.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encodeAllHashesOnTheCallerWhenThePoolIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, false, registry);
+        started = new CountDownLatch(1);
+        CompletableFuture.supplyAsync(() -> encoder.encode("slow-running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.supplyAsync(() -> encoder.encode("slow-queued"));
+        awaitQueueSize(1);
+        hashingThreads.clear();
+
+        List<String> hashes = encoder.encodeAll(List.of("a", "b", "c"));
+
+        assertEquals(List.of("hash:a", "hash:b", "hash:c"), hashes);
+        assertEquals(Set.of(Thread.currentThread().getName()), hashingThreads);
+        assertEquals(0.0, registry.get("auth.password.rejected").counter().count());
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("auth.password.queue.size").gauge().value() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
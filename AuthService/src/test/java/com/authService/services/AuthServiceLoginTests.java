@@ -0,0 +1,107 @@
+package com.authService.services;
+
+import com.authService.DTO.AuthResponse;
+import com.authService.DTO.LoginRequest;
+import com.authService.DTO.LoginState;
+import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
+import com.authService.exceptions.AccountStatusException;
+import com.authService.exceptions.InvalidOtpException;
+import com.authService.jwtSecurity.JwtService;
+import com.authService.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Login against a user cache that another instance's status or password change has not reached
+class AuthServiceLoginTests {
+
+    private static final String EMAIL = "a@uit.ac.in";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private AuthService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AuthService(userRepository, mock(PasswordEncoder.class), jwtService, authenticationManager,
+                mock(OtpService.class), userDetailsCache, refreshTokenService, mock(NamedParameterJdbcTemplate.class),
+                mock(OutboxService.class), mock(EmailBloomFilter.class));
+        when(jwtService.claimsOf(any())).thenReturn(Map.of());
+        when(jwtService.generateToken(anyString(), anyMap())).thenReturn("jwt");
+        when(refreshTokenService.issue(anyString(), anyMap())).thenReturn("refresh");
+    }
+
+    @Test
+    void anUpToDateCopyIsUsedAsIs() {
+        when(authenticationManager.authenticate(any())).thenReturn(authenticated("hash", AccountStatus.APPROVED));
+        when(userRepository.findLoginState(EMAIL)).thenReturn(Optional.of(new LoginState("hash", AccountStatus.APPROVED, false)));
+
+        AuthResponse response = service.login(request());
+
+        assertEquals("jwt", response.getToken());
+        verify(authenticationManager, times(1)).authenticate(any());
+        verify(userDetailsCache, never()).evict(anyString());
+    }
+
+    @Test
+    void aUserSuspendedElsewhereGetsNoTokens() {
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(authenticated("hash", AccountStatus.APPROVED))
+                .thenReturn(authenticated("hash", AccountStatus.REJECTED));
+        when(userRepository.findLoginState(EMAIL)).thenReturn(Optional.of(new LoginState("hash", AccountStatus.REJECTED, false)));
+
+        assertThrows(AccountStatusException.class, () -> service.login(request()));
+
+        verify(userDetailsCache).evict(EMAIL);
+        verify(refreshTokenService, never()).issue(anyString(), anyMap());
+    }
+
+    @Test
+    void anOldPasswordStopsWorkingAsSoonAsItIsChanged() {
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(authenticated("old-hash", AccountStatus.APPROVED))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+        when(userRepository.findLoginState(EMAIL)).thenReturn(Optional.of(new LoginState("new-hash", AccountStatus.APPROVED, false)));
+
+        assertThrows(InvalidOtpException.class, () -> service.login(request()));
+
+        verify(userDetailsCache).evict(EMAIL);
+        verify(refreshTokenService, never()).issue(anyString(), anyMap());
+    }
+
+    private static UsernamePasswordAuthenticationToken authenticated(String hash, AccountStatus status) {
+        UserInfoDetails user = new UserInfoDetails(User.builder().id(1L).email(EMAIL).password(hash)
+                .role(Role.STUDENT).status(status).build());
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    private static LoginRequest request() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword("secret");
+        return request;
+    }
+}
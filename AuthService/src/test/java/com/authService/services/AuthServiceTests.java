@@ -0,0 +1,104 @@
+package com.authService.services;
+
+import com.authService.DTO.AdminScope;
+import com.authService.DTO.BulkStatusUpdateResponse;
+import com.authService.DTO.NotificationEvent;
+import com.authService.enums.AccountStatus;
+import com.authService.jwtSecurity.JwtService;
+import com.authService.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AuthServiceTests {
+
+    private static final AdminScope SUPER_ADMIN = new AdminScope("SUPER_ADMIN", null, null);
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private JdbcTemplate jdbc;
+    private AuthService service;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestPostgres.dataSource();
+        jdbc = new JdbcTemplate(dataSource);
+        service = new AuthService(mock(UserRepository.class), mock(PasswordEncoder.class), mock(JwtService.class),
+                mock(AuthenticationManager.class), mock(OtpService.class), userDetailsCache,
+                mock(RefreshTokenService.class), new NamedParameterJdbcTemplate(dataSource), outboxService,
+                mock(EmailBloomFilter.class));
+    }
+
+    @Test
+    void onlyPendingUsersAreUpdatedAndEachGetsAnEvent() throws Exception {
+        insertUser("p1@uit.ac.in", 3, 7, "PENDING");
+        insertUser("p2@uit.ac.in", 3, 7, "PENDING");
+        insertUser("done@uit.ac.in", 3, 7, "REJECTED");
+
+        BulkStatusUpdateResponse response = service.updatePendingStatuses(
+                List.of("p1@uit.ac.in", "p2@uit.ac.in", "done@uit.ac.in", "nobody@uit.ac.in", "p1@uit.ac.in"),
+                AccountStatus.APPROVED, SUPER_ADMIN);
+
+        assertEquals(List.of("p1@uit.ac.in", "p2@uit.ac.in"),
+                response.getUpdated().stream().map(BulkStatusUpdateResponse.UpdatedUser::getEmail).sorted().toList());
+        assertEquals(List.of("done@uit.ac.in", "nobody@uit.ac.in"), response.getSkipped());
+        assertEquals("APPROVED", statusOf("p1@uit.ac.in"));
+        assertEquals("REJECTED", statusOf("done@uit.ac.in"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(outboxService).enqueueAll(eq("notification.system"), events.capture());
+        assertEquals(2, events.getValue().size());
+        assertEquals("APPROVED", events.getValue().get(0).getPayload().get("status"));
+        verify(userDetailsCache).evict("p2@uit.ac.in");
+    }
+
+    @Test
+    void usersOutsideTheAdminsScopeAreSkipped() {
+        insertUser("own@uit.ac.in", 3, 7, "PENDING");
+        insertUser("other-dept@uit.ac.in", 3, 8, "PENDING");
+        insertUser("other-college@uit.ac.in", 4, 7, "PENDING");
+        List<String> emails = List.of("own@uit.ac.in", "other-dept@uit.ac.in", "other-college@uit.ac.in");
+
+        BulkStatusUpdateResponse dept = service.updatePendingStatuses(emails, AccountStatus.REJECTED,
+                new AdminScope("DEPT_ADMIN", 3L, 7L));
+        assertEquals(1, dept.getUpdated().size());
+        assertEquals(List.of("other-dept@uit.ac.in", "other-college@uit.ac.in"), dept.getSkipped());
+
+        BulkStatusUpdateResponse college = service.updatePendingStatuses(emails, AccountStatus.APPROVED,
+                new AdminScope("COLLEGE_ADMIN", 3L, null));
+        assertEquals(List.of("other-dept@uit.ac.in"),
+                college.getUpdated().stream().map(BulkStatusUpdateResponse.UpdatedUser::getEmail).toList());
+        assertEquals("PENDING", statusOf("other-college@uit.ac.in"));
+    }
+
+    @Test
+    void pendingIsNotATargetStatus() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.updatePendingStatuses(List.of("a@uit.ac.in"), AccountStatus.PENDING, SUPER_ADMIN));
+    }
+
+    private void insertUser(String email, long collegeId, long departmentId, String status) {
+        jdbc.update("insert into users (email, password, college_id, department_id, status) values (?, 'x', ?, ?, ?)",
+                email, collegeId, departmentId, status);
+    }
+
+    private String statusOf(String email) {
+        return jdbc.queryForObject("select status from users where email = ?", String.class, email);
+    }
+}
@@ -0,0 +1,212 @@
+package com.authService.services;
+
+import com.authService.DTO.AdminScope;
+import com.authService.DTO.BulkImportResponse;
+import com.authService.DTO.BulkImportResponse.RowResult;
+import com.authService.DTO.BulkImportRow;
+import com.authService.DTO.NotificationEvent;
+import com.authService.config.BoundedPasswordEncoder;
+import com.authService.enums.Role;
+import com.authService.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+class BulkImportServiceTests {
+
+    private static final AdminScope SUPER_ADMIN = new AdminScope("SUPER_ADMIN", null, null);
+    private static final AdminScope DEPT_7 = new AdminScope("DEPT_ADMIN", 3L, 7L);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final EmailBloomFilter emailBloomFilter = mock(EmailBloomFilter.class);
+    private JdbcTemplate jdbc;
+    private BoundedPasswordEncoder passwordEncoder;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestPostgres.dataSource();
+        jdbc = new JdbcTemplate(dataSource);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(dataSource);
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> new HashSet<>(
+                named.queryForList("select email from users where email in (:emails)",
+                        Map.of("emails", invocation.<Collection<String>>getArgument(0)), String.class)));
+
+        passwordEncoder = new BoundedPasswordEncoder(PLAIN_TEXT, 2, 4, false, new SimpleMeterRegistry());
+        service = new BulkImportService(userRepository, passwordEncoder, jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                outboxService, new ObjectMapper(), emailBloomFilter);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void csvImportReportsEveryRowAndInsertsInBatches() throws Exception {
+        insertUser("taken@uit.ac.in");
+        String csv = """
+                Email,Password,EnrollmentNo,CollegeId,DepartmentId,Role
+                a@uit.ac.in,pw-a,0101CS01,3,7,student
+
+                b@uit.ac.in,"pw,b",0101CS02,3,7,FACULTY
+                a@uit.ac.in,pw-a2,0101CS03,3,7,
+                taken@uit.ac.in,pw,0101CS04,3,7,
+                not-an-email,pw,0101CS05,3,7,
+                c@uit.ac.in,pw-c,0101CS06,3,7,DEPT_ADMIN
+                d@uit.ac.in,pw-d,,3,7,
+                """;
+
+        BulkImportResponse response = service.importUsers(stream(csv), false, SUPER_ADMIN);
+
+        assertEquals(3, response.getCreated());
+        assertEquals(2, response.getDuplicates());
+        assertEquals(2, response.getInvalid());
+        assertEquals(List.of("CREATED", "CREATED", "DUPLICATE", "DUPLICATE", "INVALID", "INVALID", "CREATED"),
+                response.getRows().stream().map(RowResult::getStatus).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), response.getRows().stream().map(RowResult::getRow).toList());
+
+        assertEquals("pw,b", jdbc.queryForObject("select password from users where email = 'b@uit.ac.in'", String.class));
+        assertEquals("FACULTY", jdbc.queryForObject("select role from users where email = 'b@uit.ac.in'", String.class));
+        assertEquals("PENDING", jdbc.queryForObject("select status from users where email = 'd@uit.ac.in'", String.class));
+        assertEquals(Boolean.TRUE, jdbc.queryForObject(
+                "select is_password_change_required from users where email = 'd@uit.ac.in'", Boolean.class));
+        // One USERS_IMPORTED event per batch that created someone
+        verify(outboxService, times(2)).enqueue(eq("notification.user"), any(NotificationEvent.class));
+        verify(emailBloomFilter).add("d@uit.ac.in");
+    }
+
+    @Test
+    void rowsLosingTheInsertRaceAreCountedAsDuplicates() throws Exception {
+        insertUser("raced@uit.ac.in");
+        // The duplicate query misses the row, as if it was committed just after it ran
+        doReturn(Set.of()).when(userRepository).findExistingEmails(anyCollection());
+        String ndjson = """
+                {"email":"raced@uit.ac.in","password":"pw","departmentId":7}
+                {"email":"fresh@uit.ac.in","password":"pw","departmentId":7}
+                """;
+
+        BulkImportResponse response = service.importUsers(stream(ndjson), true, SUPER_ADMIN);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals("DUPLICATE", response.getRows().get(0).getStatus());
+        assertEquals(2, jdbc.queryForObject("select count(*) from users", Integer.class));
+
+        ArgumentCaptor<NotificationEvent> event = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(outboxService).enqueue(eq("notification.user"), event.capture());
+        assertEquals(List.of("fresh@uit.ac.in"), ((List<?>) event.getValue().getPayload().get("users")).stream()
+                .map(user -> ((Map<?, ?>) user).get("userEmail")).toList());
+    }
+
+    @Test
+    void unreadableLinesAreInvalidAndNothingIsPublishedWithoutInserts() throws Exception {
+        BulkImportResponse response = service.importUsers(stream("{not json}\n{\"email\":\"x@uit.ac.in\"}\n"), true, SUPER_ADMIN);
+
+        assertEquals(2, response.getInvalid());
+        assertEquals("Password is required.", response.getRows().get(1).getMessage());
+        verify(outboxService, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void splitCsvHandlesQuotes() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), BulkImportService.splitCsv("a,\"b,c\",\"say \"\"hi\"\"\","));
+        assertEquals(List.of(""), BulkImportService.splitCsv(""));
+    }
+
+    @Test
+    void validationDefaultsTheRoleAndOnlyAllowsStudentsAndFaculty() {
+        BulkImportRow row = row(" s@uit.ac.in ", null, 7L);
+        assertNull(BulkImportService.validate(row, SUPER_ADMIN));
+        assertEquals(Role.STUDENT, row.getRole());
+        assertEquals("s@uit.ac.in", row.getEmail());
+
+        BulkImportRow admin = row("a@uit.ac.in", null, 7L);
+        admin.setRole(Role.SUPER_ADMIN);
+        assertEquals("Only STUDENT and FACULTY users can be imported.", BulkImportService.validate(admin, SUPER_ADMIN));
+        assertEquals("departmentId is required.", BulkImportService.validate(row("x@uit.ac.in", null, null), SUPER_ADMIN));
+    }
+
+    @Test
+    void rowsAreConfinedToTheAdminsScope() {
+        BulkImportRow filled = row("s@uit.ac.in", null, null);
+        assertNull(BulkImportService.validate(filled, DEPT_7));
+        assertEquals(3L, filled.getCollegeId());
+        assertEquals(7L, filled.getDepartmentId());
+
+        assertEquals("departmentId is outside your department.",
+                BulkImportService.validate(row("s@uit.ac.in", 3L, 8L), DEPT_7));
+        assertEquals("collegeId is outside your college.",
+                BulkImportService.validate(row("s@uit.ac.in", 4L, 7L), DEPT_7));
+
+        AdminScope college3 = new AdminScope("COLLEGE_ADMIN", 3L, null);
+        assertNull(BulkImportService.validate(row("s@uit.ac.in", null, 8L), college3));
+        assertEquals("collegeId is outside your college.",
+                BulkImportService.validate(row("s@uit.ac.in", 4L, 8L), college3));
+    }
+
+    // Stores passwords as given so assertions can read them back
+    private static final PasswordEncoder PLAIN_TEXT = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private void insertUser(String email) {
+        jdbc.update("insert into users (email, password, status) values (?, 'x', 'APPROVED')", email);
+    }
+
+    private static BulkImportRow row(String email, Long collegeId, Long departmentId) {
+        BulkImportRow row = new BulkImportRow();
+        row.setEmail(email);
+        row.setPassword("pw");
+        row.setCollegeId(collegeId);
+        row.setDepartmentId(departmentId);
+        return row;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
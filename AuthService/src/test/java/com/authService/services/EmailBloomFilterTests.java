@@ -0,0 +1,104 @@
+package com.authService.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailBloomFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EmailBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        filter = new EmailBloomFilter(jdbcTemplate, mock(TransactionTemplate.class), new ObjectMapper(), registry);
+        ReflectionTestUtils.setField(filter, "replayMargin", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void bitsHaveNoFalseNegativesAndKeepToTheTargetRate() {
+        EmailBloomFilter.Bits bits = new EmailBloomFilter.Bits(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bits.add("user" + i + "@uit.ac.in");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bits.mightContain("user" + i + "@uit.ac.in"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bits.mightContain("stranger" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 1_500, falsePositives + " false positives in 100000");
+        assertEquals(0.01, bits.expectedFpp(), 0.002);
+    }
+
+    @Test
+    void bitsAreSizedFromTheExpectedCountAndRate() {
+        EmailBloomFilter.Bits bits = new EmailBloomFilter.Bits(1_000_000, 0.01);
+        // m = -n ln p / (ln 2)^2 = 9,585,059 bits, rounded up to whole words; k = m/n ln 2 = 7
+        assertEquals(9_585_088, bits.size);
+        assertEquals(7, bits.hashes);
+        assertEquals(0.0, bits.expectedFpp());
+    }
+
+    @Test
+    void beforeTheFirstLoadEveryEmailIsCheckedInTheDatabase() {
+        AtomicInteger queries = new AtomicInteger();
+
+        assertTrue(filter.exists("known@uit.ac.in", email -> queries.incrementAndGet() > 0));
+        assertFalse(filter.exists("unknown@uit.ac.in", email -> queries.incrementAndGet() < 0));
+
+        assertEquals(2, queries.get());
+        assertEquals(2.0, registry.get("auth.email.bloom.checks").tag("result", "maybe").counter().count());
+        // Without a filter a "no" from the database is not the filter's false positive
+        assertEquals(0.0, registry.get("auth.email.bloom.false.positives").counter().count());
+    }
+
+    @Test
+    void onceLoadedAbsentEmailsSkipTheDatabase() {
+        ReflectionTestUtils.setField(filter, "current", new EmailBloomFilter.Bits(1_000, 0.01));
+        filter.add("known@uit.ac.in");
+        filter.onUserEvent("{\"eventType\":\"USER_REGISTERED\",\"payload\":{\"userEmail\":\"remote@uit.ac.in\"}}");
+
+        assertFalse(filter.exists("unknown@uit.ac.in", email -> {
+            throw new AssertionError("database queried");
+        }));
+        assertTrue(filter.exists("known@uit.ac.in", email -> true));
+        assertTrue(filter.exists("remote@uit.ac.in", email -> true));
+        assertEquals(1.0, registry.get("auth.email.bloom.checks").tag("result", "absent").counter().count());
+    }
+
+    @Test
+    void assignedPartitionsRewindToBeforeTheScan() {
+        long scanStarted = (long) ReflectionTestUtils.getField(filter, "scanStartedMillis");
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        Map<TopicPartition, Long> assignments = Map.of(new TopicPartition("notification.user", 0), 42L);
+
+        filter.onPartitionsAssigned(assignments, callback);
+
+        verify(callback).seekToTimestamp(assignments.keySet(), scanStarted - Duration.ofMinutes(5).toMillis());
+    }
+}
@@ -0,0 +1,153 @@
+package com.authService.services;
+
+import com.authService.exceptions.OtpThrottledException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OtpServiceTests {
+
+    private static final String EMAIL = "student@uit.ac.in";
+
+    private OtpService otpService;
+
+    @BeforeEach
+    void setUp() {
+        otpService = new OtpService(TestRedis.template());
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(otpService, "resendCooldown", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(otpService, "rateWindow", Duration.ofHours(1));
+        ReflectionTestUtils.setField(otpService, "maxPerEmail", 100);
+        ReflectionTestUtils.setField(otpService, "maxPerIp", 100);
+    }
+
+    @Test
+    void codeIsSixDigitsAndCanBeUsedOnce() {
+        String code = otpService.generateAndSendOtp(EMAIL, "10.0.0.1").getOtpCode();
+
+        assertTrue(code.matches("\\d{6}"), code);
+        assertTrue(otpService.validateOtp(EMAIL, code));
+        assertFalse(otpService.validateOtp(EMAIL, code));
+    }
+
+    @Test
+    void wrongGuessesBelowTheLimitLeaveTheCodeUsable() {
+        String code = otpService.generateAndSendOtp(EMAIL, null).getOtpCode();
+
+        assertFalse(otpService.validateOtp(EMAIL, wrong(code)));
+        assertFalse(otpService.validateOtp(EMAIL, wrong(code)));
+        assertTrue(otpService.validateOtp(EMAIL, code));
+    }
+
+    @Test
+    void codeIsBurnedAfterMaxAttempts() {
+        String code = otpService.generateAndSendOtp(EMAIL, null).getOtpCode();
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(otpService.validateOtp(EMAIL, wrong(code)));
+        }
+        assertFalse(otpService.validateOtp(EMAIL, code));
+    }
+
+    @Test
+    void missingCodeOrInputNeverValidates() {
+        assertFalse(otpService.validateOtp(EMAIL, "123456"));
+        otpService.generateAndSendOtp(EMAIL, null);
+        assertFalse(otpService.validateOtp(EMAIL, null));
+    }
+
+    @Test
+    void resendCooldownThrottlesWithRetryAfter() throws InterruptedException {
+        ReflectionTestUtils.setField(otpService, "resendCooldown", Duration.ofMillis(300));
+        String first = otpService.generateAndSendOtp(EMAIL, null).getOtpCode();
+
+        OtpThrottledException throttled = assertThrows(OtpThrottledException.class,
+                () -> otpService.generateAndSendOtp(EMAIL, null));
+        assertEquals(1, throttled.getRetryAfterSeconds());
+        // The throttled call did not replace the code already sent
+        assertTrue(otpService.validateOtp(EMAIL, first));
+
+        Thread.sleep(350);
+        otpService.generateAndSendOtp(EMAIL, null);
+    }
+
+    @Test
+    void slidingWindowLimitsCodesPerEmail() throws InterruptedException {
+        ReflectionTestUtils.setField(otpService, "maxPerEmail", 2);
+        otpService.generateAndSendOtp(EMAIL, "10.0.0.1");
+        Thread.sleep(5);
+        otpService.generateAndSendOtp(EMAIL, "10.0.0.2");
+        Thread.sleep(5);
+
+        OtpThrottledException throttled = assertThrows(OtpThrottledException.class,
+                () -> otpService.generateAndSendOtp(EMAIL, "10.0.0.3"));
+        // The oldest request leaves the one-hour window in just under an hour
+        assertTrue(throttled.getRetryAfterSeconds() > 3590 && throttled.getRetryAfterSeconds() <= 3600,
+                "retry after " + throttled.getRetryAfterSeconds());
+        otpService.generateAndSendOtp("other@uit.ac.in", "10.0.0.3");
+    }
+
+    @Test
+    void slidingWindowLimitsCodesPerIpAcrossEmails() {
+        ReflectionTestUtils.setField(otpService, "maxPerIp", 2);
+        otpService.generateAndSendOtp("a@uit.ac.in", "10.0.0.1");
+        otpService.generateAndSendOtp("b@uit.ac.in", "10.0.0.1");
+
+        assertThrows(OtpThrottledException.class, () -> otpService.generateAndSendOtp("c@uit.ac.in", "10.0.0.1"));
+        // A throttled request does not count against the email's own window or start its cooldown
+        otpService.generateAndSendOtp("c@uit.ac.in", "10.0.0.2");
+        otpService.generateAndSendOtp("d@uit.ac.in", null);
+    }
+
+    @Test
+    void requestThrottledByEmailDoesNotCountAgainstTheIp() {
+        ReflectionTestUtils.setField(otpService, "maxPerEmail", 1);
+        ReflectionTestUtils.setField(otpService, "maxPerIp", 2);
+        otpService.generateAndSendOtp("a@uit.ac.in", "10.0.0.1");
+        assertThrows(OtpThrottledException.class, () -> otpService.generateAndSendOtp("a@uit.ac.in", "10.0.0.1"));
+
+        otpService.generateAndSendOtp("b@uit.ac.in", "10.0.0.1");
+        assertThrows(OtpThrottledException.class, () -> otpService.generateAndSendOtp("c@uit.ac.in", "10.0.0.1"));
+    }
+
+    @Test
+    void perEmailKeysShareOneClusterSlot() {
+        ReflectionTestUtils.setField(otpService, "resendCooldown", Duration.ofMinutes(1));
+        String code = otpService.generateAndSendOtp(EMAIL, "10.0.0.1").getOtpCode();
+        otpService.validateOtp(EMAIL, wrong(code));
+
+        StringRedisTemplate redis = (StringRedisTemplate) ReflectionTestUtils.getField(otpService, "redisTemplate");
+        Set<String> keys = redis.keys("otp:{" + EMAIL + "}:*");
+        assertEquals(4, keys.size(), keys.toString());
+        assertEquals(1, keys.stream().map(ClusterSlotHashUtil::calculateSlot).distinct().count(), keys.toString());
+    }
+
+    @Test
+    void newCodeResetsTheAttemptCounter() throws InterruptedException {
+        String code = otpService.generateAndSendOtp(EMAIL, null).getOtpCode();
+        assertFalse(otpService.validateOtp(EMAIL, wrong(code)));
+        assertFalse(otpService.validateOtp(EMAIL, wrong(code)));
+        Thread.sleep(5);
+
+        String next = otpService.generateAndSendOtp(EMAIL, null).getOtpCode();
+        assertFalse(otpService.validateOtp(EMAIL, wrong(next)));
+        assertFalse(otpService.validateOtp(EMAIL, wrong(next)));
+        assertTrue(otpService.validateOtp(EMAIL, next));
+    }
+
+    private static String wrong(String code) {
+        return code.equals("000000") ? "000001" : "000000";
+    }
+}
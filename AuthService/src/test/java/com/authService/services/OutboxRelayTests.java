@@ -0,0 +1,225 @@
+package com.authService.services;
+
+import com.authService.entities.OutboxEvent;
+import com.authService.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxRelayTests {
+
+    private static final Instant CREATED = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final NotificationPublisher publisher = mock(NotificationPublisher.class);
+    private final List<String> sentKeys = new ArrayList<>();
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private JdbcTemplate jdbc;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = TestPostgres.dataSource();
+        jdbc = new JdbcTemplate(dataSource);
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.authService.entities");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.physical_naming_strategy",
+                CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+        EntityManagerFactory emf = entityManagerFactory.getObject();
+        OutboxEventRepository repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(emf))
+                .getRepository(OutboxEventRepository.class);
+
+        relay = new OutboxRelay(repository, publisher, new TransactionTemplate(new JpaTransactionManager(emf)),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "maxBatch", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ofMillis(300));
+        ReflectionTestUtils.setField(relay, "claimLease", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(relay, "retention", Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void rowsAreSentWithTheirKeyAndChangeTimeThenMarkedSent() {
+        insertRow("a@uit.ac.in", null);
+        insertRow("b@uit.ac.in", null);
+        when(publisher.send(eq("notification.user"), any(), any(), eq(CREATED.toEpochMilli()))).thenAnswer(invocation -> {
+            // The claim is committed before any send: no row locks or connection held meanwhile
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            sentKeys.add(invocation.getArgument(1));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay.relay();
+
+        assertEquals(List.of("a@uit.ac.in", "b@uit.ac.in"), sentKeys);
+        assertEquals(0, unsent());
+        relay.relay();
+        assertEquals(2, sentKeys.size());
+    }
+
+    @Test
+    void failedRowsAreReleasedForTheNextPass() {
+        insertRow("ok@uit.ac.in", null);
+        long failing = insertRow("fails@uit.ac.in", null);
+        when(publisher.send(any(), eq("ok@uit.ac.in"), any(), anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+        when(publisher.send(any(), eq("fails@uit.ac.in"), any(), anyLong()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        relay.relay();
+
+        assertEquals(1, unsent());
+        assertNull(jdbc.queryForObject("select claimed_until from outbox_events where id = ?", Timestamp.class, failing));
+
+        when(publisher.send(any(), eq("fails@uit.ac.in"), any(), anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+        relay.relay();
+        assertEquals(0, unsent());
+    }
+
+    @Test
+    void rowsUnderALiveClaimAreLeftToTheirInstance() {
+        insertRow("claimed@uit.ac.in", Instant.now().plusSeconds(60));
+        long expired = insertRow("orphaned@uit.ac.in", Instant.now().minusSeconds(1));
+        when(publisher.send(any(), any(), any(), anyLong())).thenAnswer(invocation -> {
+            sentKeys.add(invocation.getArgument(1));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay.relay();
+
+        assertEquals(List.of("orphaned@uit.ac.in"), sentKeys);
+        assertNotNull(jdbc.queryForObject("select sent_at from outbox_events where id = ?", Timestamp.class, expired));
+        assertEquals(1, unsent());
+    }
+
+    @Test
+    void failedRowHoldsBackTheLaterRowsOfItsKey() {
+        long first = insertRow("k@uit.ac.in", null);
+        long second = insertRow("k@uit.ac.in", null);
+        insertRow("other@uit.ac.in", null);
+        List<String> sent = new ArrayList<>();
+        when(publisher.send(any(), any(), any(), anyLong())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(1) + "#" + invocation.getArgument(2));
+            return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+        });
+        jdbc.update("update outbox_events set payload = ? where id = ?", "first", first);
+        jdbc.update("update outbox_events set payload = ? where id = ?", "second", second);
+
+        relay.relay();
+
+        // The second row of the key was never sent after the first failed
+        assertEquals(List.of("k@uit.ac.in#first", "other@uit.ac.in#{}"), sent);
+        assertEquals(3, unsent());
+
+        sent.clear();
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(1) + "#" + invocation.getArgument(2));
+            return CompletableFuture.completedFuture(null);
+        }).when(publisher).send(any(), any(), any(), anyLong());
+        relay.relay();
+        assertEquals(List.of("k@uit.ac.in#first", "other@uit.ac.in#{}", "k@uit.ac.in#second"), sent);
+        assertEquals(0, unsent());
+    }
+
+    @Test
+    void rowsWaitWhileAnEarlierRowOfTheirKeyIsInFlightElsewhere() {
+        insertRow("k@uit.ac.in", Instant.now().plusSeconds(60));
+        insertRow("k@uit.ac.in", null);
+        insertRow("other@uit.ac.in", null);
+        when(publisher.send(any(), any(), any(), anyLong())).thenAnswer(invocation -> {
+            sentKeys.add(invocation.getArgument(1));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        relay.relay();
+
+        assertEquals(List.of("other@uit.ac.in"), sentKeys);
+        assertEquals(2, unsent());
+    }
+
+    @Test
+    void nothingIsClaimedWhileAnotherInstanceIsClaiming() throws SQLException {
+        insertRow("a@uit.ac.in", null);
+        when(publisher.send(any(), any(), any(), anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+
+        try (Connection otherInstance = jdbc.getDataSource().getConnection()) {
+            otherInstance.setAutoCommit(false);
+            otherInstance.createStatement().execute("select pg_advisory_xact_lock(hashtext('outbox_events'))");
+            relay.relay();
+            assertEquals(1, unsent());
+            otherInstance.rollback();
+        }
+
+        relay.relay();
+        assertEquals(0, unsent());
+    }
+
+    @Test
+    void unackedSendsShareOneDeadline() {
+        for (int i = 0; i < 5; i++) {
+            insertRow("slow" + i + "@uit.ac.in", null);
+        }
+        when(publisher.send(any(), any(), any(), anyLong())).thenReturn(new CompletableFuture<>());
+
+        long started = System.nanoTime();
+        relay.relay();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+        assertEquals(5, unsent());
+        assertEquals(0, jdbc.queryForObject("select count(*) from outbox_events where claimed_until is not null", Integer.class));
+    }
+
+    private long insertRow(String key, Instant claimedUntil) {
+        return jdbc.queryForObject("insert into outbox_events (topic, message_key, payload, created_at, claimed_until)"
+                        + " values ('notification.user', ?, '{}', ?, ?) returning id", Long.class,
+                key, Timestamp.from(CREATED), claimedUntil == null ? null : Timestamp.from(claimedUntil));
+    }
+
+    private int unsent() {
+        return jdbc.queryForObject("select count(*) from outbox_events where sent_at is null", Integer.class);
+    }
+}
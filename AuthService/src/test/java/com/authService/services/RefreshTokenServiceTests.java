@@ -0,0 +1,105 @@
+package com.authService.services;
+
+import com.authService.exceptions.InvalidRefreshTokenException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenServiceTests {
+
+    private static final String EMAIL = "student@uit.ac.in";
+
+    private StringRedisTemplate redis;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        redis = TestRedis.template();
+        service = new RefreshTokenService(redis, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(service, "maxSession", Duration.ofHours(1));
+    }
+
+    @Test
+    void refreshRotatesTheTokenAndReturnsTheSessionClaims() {
+        String token = service.issue(EMAIL, Map.of("role", "STUDENT", "userId", 42));
+
+        RefreshTokenService.RefreshedSession session = service.refresh(token);
+
+        assertEquals(EMAIL, session.email());
+        assertEquals("STUDENT", session.claims().get("role"));
+        assertEquals(42, session.claims().get("userId"));
+        assertNotEquals(token, session.refreshToken());
+        assertEquals(EMAIL, service.refresh(session.refreshToken()).email());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesEverySessionOfTheUser() {
+        String stolen = service.issue(EMAIL, Map.of());
+        String otherDevice = service.issue(EMAIL, Map.of());
+        String rotated = service.refresh(stolen).refreshToken();
+        String otherUser = service.issue("faculty@uit.ac.in", Map.of());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(stolen));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(rotated));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(otherDevice));
+        assertEquals("faculty@uit.ac.in", service.refresh(otherUser).email());
+    }
+
+    @Test
+    void sessionEndsAtMaxSessionHoweverOftenItIsRefreshed() throws InterruptedException {
+        ReflectionTestUtils.setField(service, "maxSession", Duration.ofMillis(300));
+        String token = service.refresh(service.issue(EMAIL, Map.of())).refreshToken();
+
+        Thread.sleep(400);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(token));
+    }
+
+    @Test
+    void logoutEndsOneSessionAndRevokeAllEndsTheRest() {
+        String first = service.issue(EMAIL, Map.of());
+        String second = service.issue(EMAIL, Map.of());
+        String third = service.issue(EMAIL, Map.of());
+
+        service.revoke(first);
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(first));
+        String rotated = service.refresh(second).refreshToken();
+
+        service.revokeAll(EMAIL);
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(rotated));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh(third));
+    }
+
+    @Test
+    void allOfAUsersKeysShareOneClusterSlot() {
+        service.refresh(service.issue(EMAIL, Map.of()));
+
+        String tag = "{" + RefreshTokenService.tagOf(EMAIL) + "}";
+        Set<String> keys = redis.keys("refresh:*");
+        assertEquals(3, keys.size(), "user set, tombstone and live token");
+        assertTrue(keys.stream().allMatch(key -> key.contains(tag)), keys.toString());
+    }
+
+    @Test
+    void malformedTokensAreRejectedWithoutTouchingRedis() {
+        assertThrows(InvalidRefreshTokenException.class, () -> service.refresh("not-a-token"));
+        service.revoke("not-a-token");
+        assertFalse(redis.hasKey(RefreshTokenService.userKey(RefreshTokenService.tagOf(EMAIL))));
+    }
+}
@@ -0,0 +1,58 @@
+package com.authService.services;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+
+/**
+ * One Postgres container shared by the SQL tests, started on first use. The tables mirror what
+ * Hibernate generates for the entities; each call hands them back empty.
+ */
+final class TestPostgres {
+
+    private static final PostgreSQLContainer<?> POSTGRES =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    private static final String SCHEMA = """
+            DROP TABLE IF EXISTS users, outbox_events;
+            CREATE TABLE users (
+                id bigserial PRIMARY KEY,
+                email varchar(255) NOT NULL UNIQUE,
+                password varchar(255) NOT NULL,
+                enrollment_no varchar(255),
+                college_id bigint,
+                department_id bigint,
+                role varchar(255),
+                status varchar(255),
+                is_email_verified boolean DEFAULT false,
+                is_password_change_required boolean DEFAULT false
+            );
+            CREATE TABLE outbox_events (
+                id bigserial PRIMARY KEY,
+                topic varchar(255) NOT NULL,
+                message_key varchar(255),
+                payload text NOT NULL,
+                created_at timestamp(6) with time zone NOT NULL,
+                sent_at timestamp(6) with time zone,
+                claimed_until timestamp(6) with time zone
+            );
+            """;
+
+    private static DataSource dataSource;
+
+    private TestPostgres() {
+    }
+
+    static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            POSTGRES.start();
+            dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+            new JdbcTemplate(dataSource).execute(SCHEMA);
+        }
+        new JdbcTemplate(dataSource).execute("TRUNCATE users, outbox_events RESTART IDENTITY");
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package com.authService.services;
+
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * One Redis container shared by the script tests, started on first use.
+ */
+final class TestRedis {
+
+    private static final GenericContainer<?> REDIS =
+            new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379);
+
+    private static StringRedisTemplate template;
+
+    private TestRedis() {
+    }
+
+    static synchronized StringRedisTemplate template() {
+        if (template == null) {
+            REDIS.start();
+            LettuceConnectionFactory connectionFactory =
+                    new LettuceConnectionFactory(REDIS.getHost(), REDIS.getFirstMappedPort());
+            connectionFactory.afterPropertiesSet();
+            template = new StringRedisTemplate(connectionFactory);
+        }
+        template.getConnectionFactory().getConnection().serverCommands().flushAll();
+        return template;
+    }
+}
@@ -0,0 +1,80 @@
+package com.benchmarks.auth;
+
+import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
+import com.authService.jwtSecurity.JwtService;
+import com.authService.services.UserInfoDetails;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verify in AuthService's JwtService with the key set built once, against
+ * decoding the secret and building a parser on every call as it used to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    // 256-bit Base64 key, same format as JWT_SECRET_KEY
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMhIQ==";
+
+    private JwtService jwtService;
+    private UserInfoDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        user = new UserInfoDetails(User.builder()
+                .id(42L)
+                .email("student@uit.ac.in")
+                .password("{bcrypt}unused")
+                .enrollmentNo("0101CS221001")
+                .collegeId(1L)
+                .departmentId(7L)
+                .role(Role.STUDENT)
+                .status(AccountStatus.APPROVED)
+                .build());
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Object verifyRebuildingKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
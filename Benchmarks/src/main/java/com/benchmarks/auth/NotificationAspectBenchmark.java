@@ -0,0 +1,185 @@
+package com.benchmarks.auth;
+
+import com.authService.AOP.NotificationAspect;
+import com.authService.AOP.NotificationEventMappers;
+import com.authService.AOP.SendNotification;
+import com.authService.DTO.NotificationEvent;
+import com.authService.DTO.SignupRequest;
+import com.authService.entities.User;
+import com.authService.enums.AccountStatus;
+import com.authService.enums.Role;
+import com.authService.services.NotificationPublisher;
+import com.authService.services.OtpService;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the {@code @SendNotification} advice: a proxied call with the per-method mapper
+ * registry, with the old instanceof/equals chain, and the bare method for reference. Publishing is
+ * stubbed out, so the numbers are the advice itself (envelope, mapping, dispatch).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationAspectBenchmark {
+
+    public static class AccountOperations {
+
+        @SendNotification(topic = "notification.user", eventType = "USER_REGISTERED")
+        public User register(SignupRequest request) {
+            return USER;
+        }
+
+        @SendNotification(topic = "notification.system", eventType = "STATUS_CHANGED")
+        public User updateStatus(String email, AccountStatus status) {
+            return USER;
+        }
+
+        @SendNotification(topic = "notification.user", eventType = "PASSWORD_CHANGED")
+        public void changePassword(String email, String oldPassword, String newPassword) {
+        }
+    }
+
+    private static final User USER = User.builder()
+            .id(42L)
+            .email("student@uit.ac.in")
+            .enrollmentNo("0101CS221001")
+            .departmentId(7L)
+            .role(Role.STUDENT)
+            .status(AccountStatus.APPROVED)
+            .build();
+
+    private AccountOperations direct;
+    private AccountOperations mapped;
+    private AccountOperations legacy;
+    private SignupRequest signup;
+
+    @Setup
+    public void setUp() {
+        NotificationPublisher publisher = new NotificationPublisher(null, null, null) {
+            @Override
+            public void publish(String topic, NotificationEvent event) {
+                // Dropped: only the advice is measured
+            }
+        };
+        NotificationEventMappers mappers = new NotificationEventMappers(new DefaultListableBeanFactory());
+        mappers.register(AccountOperations.class);
+
+        direct = new AccountOperations();
+        mapped = proxy(new NotificationAspect(publisher, null, mappers));
+        legacy = proxy(new LegacyNotificationAspect(publisher));
+
+        signup = new SignupRequest();
+        signup.setEmail("student@uit.ac.in");
+        signup.setEnrollmentNo("0101CS221001");
+        signup.setDepartmentId(7L);
+        signup.setRole(Role.STUDENT);
+    }
+
+    private static AccountOperations proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new AccountOperations());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public void direct(Blackhole bh) {
+        bh.consume(direct.register(signup));
+        bh.consume(direct.updateStatus("student@uit.ac.in", AccountStatus.APPROVED));
+        direct.changePassword("student@uit.ac.in", "old", "new");
+    }
+
+    @Benchmark
+    public void mappedAdvice(Blackhole bh) {
+        bh.consume(mapped.register(signup));
+        bh.consume(mapped.updateStatus("student@uit.ac.in", AccountStatus.APPROVED));
+        mapped.changePassword("student@uit.ac.in", "old", "new");
+    }
+
+    @Benchmark
+    public void legacyAdvice(Blackhole bh) {
+        bh.consume(legacy.register(signup));
+        bh.consume(legacy.updateStatus("student@uit.ac.in", AccountStatus.APPROVED));
+        legacy.changePassword("student@uit.ac.in", "old", "new");
+    }
+
+    // The advice as it was before the mapper registry, kept here as the baseline
+    @Aspect
+    public static class LegacyNotificationAspect {
+
+        private final NotificationPublisher notificationPublisher;
+
+        public LegacyNotificationAspect(NotificationPublisher notificationPublisher) {
+            this.notificationPublisher = notificationPublisher;
+        }
+
+        @AfterReturning(pointcut = "@annotation(sendNotification)", returning = "result")
+        public void handleNotification(JoinPoint joinPoint, SendNotification sendNotification, Object result) throws Exception {
+            NotificationEvent event = NotificationEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .eventType(sendNotification.eventType())
+                    .timestamp(LocalDateTime.now())
+                    .priority("MEDIUM")
+                    .payload(new HashMap<>())
+                    .build();
+            populateEventData(joinPoint, sendNotification.eventType(), result, event);
+            notificationPublisher.publish(sendNotification.topic(), event);
+        }
+
+        private void populateEventData(JoinPoint joinPoint, String eventType, Object result, NotificationEvent event) {
+            if (result instanceof OtpService.OtpEvent otpData) {
+                event.setTargetEmail(otpData.getEmail());
+                event.getPayload().put("otp", otpData.getOtpCode());
+                event.setPriority("HIGH");
+            } else if ("ADMIN_USER_CREATED".equals(eventType) && result instanceof User user) {
+                event.setTargetUserId(user.getId());
+                event.setTargetEmail(user.getEmail());
+                if (joinPoint.getArgs().length > 0 && joinPoint.getArgs()[0] instanceof SignupRequest req) {
+                    event.getPayload().put("tempPassword", req.getPassword());
+                    event.getPayload().put("role", req.getRole().toString());
+                }
+            } else if ("USER_REGISTERED".equals(eventType)) {
+                if (joinPoint.getArgs().length > 0 && joinPoint.getArgs()[0] instanceof SignupRequest req) {
+                    event.getPayload().put("userEmail", req.getEmail());
+                    event.getPayload().put("departmentId", req.getDepartmentId());
+                    event.getPayload().put("enrollmentNo", req.getEnrollmentNo());
+                }
+            } else if (result instanceof User user) {
+                event.setTargetUserId(user.getId());
+                event.setTargetEmail(user.getEmail());
+                event.getPayload().put("status", user.getStatus().toString());
+                if ("ACCOUNT_APPROVED".equals(eventType)) {
+                    event.setPriority("HIGH");
+                }
+            } else if ("PASSWORD_CHANGED".equals(eventType)) {
+                if (joinPoint.getArgs().length > 0 && joinPoint.getArgs()[0] instanceof String email) {
+                    event.setTargetEmail(email);
+                    event.setPriority("HIGH");
+                }
+            }
+        }
+    }
+}
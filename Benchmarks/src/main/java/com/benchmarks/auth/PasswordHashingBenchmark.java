@@ -0,0 +1,68 @@
+package com.benchmarks.auth;
+
+import com.authService.config.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login password checks per second at several BCrypt cost factors, with 8 concurrent callers
+ * standing in for Tomcat threads: BCrypt on the calling thread (the old behaviour) vs. handed to
+ * AuthService's CPU-sized hashing pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(8)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BoundedPasswordEncoder pooled;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        // Queue deep enough for every benchmark thread, so nothing is rejected
+        pooled = new BoundedPasswordEncoder(bcrypt, Runtime.getRuntime().availableProcessors(), 64,
+                false, new SimpleMeterRegistry());
+        hash = bcrypt.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+    }
+
+    @Benchmark
+    public boolean loginOnCallerThread() {
+        return bcrypt.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean loginOnHashingPool() {
+        return pooled.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,105 @@
+package com.benchmarks.gateway;
+
+import com.gateway.filters.AuthenticationFilter;
+import com.gateway.filters.RouteValidator;
+import com.gateway.filters.TokenRevocationList;
+import com.gateway.filters.VerifiedTokenCache;
+import com.gateway.metrics.StageTimers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole AuthenticationFilter lambda (route check, token verification, header mutation)
+ * against a mock exchange. Every operation builds a fresh exchange, so subtract
+ * {@link #buildExchangeOnly} from the other results to get the filter's own cost.
+ * The rejected* cases cover the 401 path a credential-stuffing or expired-token storm takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationFilterBenchmark {
+
+    private static final GatewayFilterChain END_OF_CHAIN = exchange -> Mono.empty();
+
+    private GatewayFilter filter;
+    private String bearerToken;
+    private String expiredBearerToken;
+
+    @Setup
+    public void setUp() {
+        AuthenticationFilter factory = new AuthenticationFilter();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(factory, "validator", new RouteValidator(GatewayFixtures.OPEN_ENDPOINTS));
+        ReflectionTestUtils.setField(factory, "tokenCache",
+                new VerifiedTokenCache(GatewayFixtures.jwtUtil(), meterRegistry, 10_000));
+        ReflectionTestUtils.setField(factory, "revocations", new TokenRevocationList(meterRegistry, Duration.ofMinutes(35)));
+        ReflectionTestUtils.setField(factory, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(factory, "stageTimers", new StageTimers(meterRegistry));
+        ReflectionTestUtils.setField(factory, "gatewaySecret", "benchmark-gateway-secret");
+        ReflectionTestUtils.invokeMethod(factory, "init");
+        filter = factory.apply(new AuthenticationFilter.Config());
+        bearerToken = "Bearer " + GatewayFixtures.token("student@uit.ac.in", 42L);
+        expiredBearerToken = "Bearer " + GatewayFixtures.expiredToken("student@uit.ac.in", 42L);
+    }
+
+    @Benchmark
+    public MockServerWebExchange buildExchangeOnly() {
+        return securedExchange();
+    }
+
+    @Benchmark
+    public void openRoute() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/auth/login")), END_OF_CHAIN).block();
+    }
+
+    @Benchmark
+    public void securedRouteWithValidToken() {
+        filter.filter(securedExchange(), END_OF_CHAIN).block();
+    }
+
+    @Benchmark
+    public void rejectedMissingHeader() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/admin/departments/7/hod")), END_OF_CHAIN).block();
+    }
+
+    @Benchmark
+    public void rejectedMalformedToken() {
+        filter.filter(securedExchange("Bearer not-a-token"), END_OF_CHAIN).block();
+    }
+
+    @Benchmark
+    public void rejectedExpiredToken() {
+        filter.filter(securedExchange(expiredBearerToken), END_OF_CHAIN).block();
+    }
+
+    private MockServerWebExchange securedExchange() {
+        return securedExchange(bearerToken);
+    }
+
+    private static MockServerWebExchange securedExchange(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/admin/departments/7/hod")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+}
@@ -0,0 +1,61 @@
+package com.benchmarks.gateway;
+
+import com.gateway.filters.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Builds gateway components the way Spring would, without starting an application context.
+ */
+final class GatewayFixtures {
+
+    // 256-bit Base64 key, same format as JWT_SECRET_KEY
+    static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLW9ubHktMzItYnl0ZXMhIQ==";
+
+    // Must match gateway.open-endpoints in ApiGateway's application.properties
+    static final String[] OPEN_ENDPOINTS = {
+            "/auth/signup", "/auth/login", "/auth/send-otp", "/auth/forgot-password", "/auth/reset-password",
+            "/auth/refresh", "/auth/logout", "/admin/public/**", "/eureka/**", "/ws-notifications/**",
+            "/notification/ws-notifications/**", "/notification/notifications/**"};
+
+    private GatewayFixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    // Same claim set JwtService.generateToken issues in AuthService
+    static String token(String email, long userId) {
+        return token(email, userId, System.currentTimeMillis() + 1000 * 60 * 30);
+    }
+
+    static String expiredToken(String email, long userId) {
+        return token(email, userId, System.currentTimeMillis() - 1000 * 60);
+    }
+
+    private static String token(String email, long userId, long expiresAtMillis) {
+        return Jwts.builder()
+                .setClaims(Map.of(
+                        "role", "STUDENT",
+                        "collegeId", 1L,
+                        "departmentId", 7L,
+                        "enrollmentNo", "0101CS221001",
+                        "status", "APPROVED",
+                        "userId", userId))
+                .setSubject(email)
+                .setIssuedAt(new Date(expiresAtMillis - 1000 * 60 * 30))
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,62 @@
+package com.benchmarks.gateway;
+
+import com.gateway.filters.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one signature verification, one claim lookup, and the validate + three extracts
+ * sequence AuthenticationFilter used to run for every secured request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = GatewayFixtures.jwtUtil();
+        token = GatewayFixtures.token("student@uit.ac.in", 42L);
+    }
+
+    @Benchmark
+    public void validateToken() {
+        jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractClaim() {
+        return jwtUtil.extractClaim(token, claims -> claims.get("role", String.class));
+    }
+
+    @Benchmark
+    public void validateThenExtractThreeClaims(Blackhole blackhole) {
+        jwtUtil.validateToken(token);
+        blackhole.consume(jwtUtil.extractClaim(token, claims -> claims.get("role", String.class)));
+        blackhole.consume(jwtUtil.extractClaim(token, claims -> claims.get("userId")));
+        blackhole.consume(jwtUtil.extractUsername(token));
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsOnce() {
+        return jwtUtil.extractAllClaims(token);
+    }
+}
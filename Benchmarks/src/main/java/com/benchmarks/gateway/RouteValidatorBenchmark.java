@@ -0,0 +1,55 @@
+package com.benchmarks.gateway;
+
+import com.gateway.filters.RouteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled route trie against the stream + String.contains scan it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteValidatorBenchmark {
+
+    // The predicate RouteValidator used before the trie, over the same endpoints in its substring form
+    private static final List<String> LEGACY_OPEN_ENDPOINTS = Arrays.stream(GatewayFixtures.OPEN_ENDPOINTS)
+            .map(pattern -> pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : pattern)
+            .toList();
+
+    @Param({"/auth/login", "/admin/public/departments/7", "/admin/departments/7/hod", "/notification/read-all"})
+    public String path;
+
+    private RouteValidator validator;
+
+    @Setup
+    public void setUp() {
+        validator = new RouteValidator(GatewayFixtures.OPEN_ENDPOINTS);
+    }
+
+    @Benchmark
+    public boolean legacyStreamContains() {
+        return LEGACY_OPEN_ENDPOINTS.stream().noneMatch(path::contains);
+    }
+
+    @Benchmark
+    public boolean compiledRouteIndex() {
+        return validator.isSecured(path);
+    }
+}
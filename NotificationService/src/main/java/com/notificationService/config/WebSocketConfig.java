@@ -2,6 +2,8 @@ package com.notificationService.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -10,7 +12,12 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.*;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
 
 @Slf4j
 @Configuration
@@ -27,6 +34,24 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws-notifications", "/notification/ws-notifications")
                 .setAllowedOriginPatterns("*")
+                .addInterceptors(new HandshakeInterceptor() {
+                    // The gateway routes the handshake by ?userId=, so that is the user this session is for
+                    @Override
+                    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                        String handshakeUserId = UriComponentsBuilder.fromUri(request.getURI()).build()
+                                .getQueryParams().getFirst("userId");
+                        if (handshakeUserId != null) {
+                            attributes.put("handshakeUserId", handshakeUserId);
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                               WebSocketHandler wsHandler, Exception exception) {
+                    }
+                })
                 .withSockJS();
     }
 
@@ -47,6 +72,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                         throw new IllegalArgumentException("Missing User Identity");
                     }
 
+                    // A different user than the handshake's would defeat the gateway's per-user routing
+                    Object handshakeUserId = accessor.getSessionAttributes().get("handshakeUserId");
+                    if (handshakeUserId != null && !handshakeUserId.equals(userId)) {
+                        log.warn("🔴 [WS INTERCEPTOR] Connection REJECTED: User {} does not match handshake user {}", userId, handshakeUserId);
+                        throw new IllegalArgumentException("User Identity does not match handshake");
+                    }
+
                     accessor.getSessionAttributes().put("userId", userId);
                     log.info("🟢 [WS INTERCEPTOR] User {} Connected Successfully!", userId);
                 }
@@ -13,9 +13,13 @@ import com.notificationService.utils.EmailTemplateBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -23,11 +27,15 @@ import java.util.Map;
 @Slf4j
 public class NotificationConsumer {
 
+    // Saved notifications fanned out to every instance; each pushes to the sockets it holds
+    private static final String PUSH_TOPIC = "notification.push";
+
     private final EmailService emailService;
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final AdminClient adminClient;
     private final NotificationRepository repository;
     private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, String> kafkaTemplate;
 
     @KafkaListener(topics = {"notification.otp", "notification.user", "notification.system"}, groupId = "notification-group")
     public void consume(String message) {
@@ -39,6 +47,7 @@ public class NotificationConsumer {
                 case "OTP_EMAIL_VERIFICATION" -> sendOtpEmail(event, "Verify Your Email", "Welcome! Your signup verification code is:");
                 case "OTP_PASSWORD_RESET" -> sendOtpEmail(event, "Reset Password Request", "Security Alert: Your password reset code is:");
                 case "USER_REGISTERED" -> handleDualRegistrationNotification(event);
+                case "USERS_IMPORTED" -> handleBulkRegistrationNotification(event);
                 case "ACCOUNT_APPROVED" -> handleAccountApproved(event);
                 case "PASSWORD_CHANGED" -> handlePasswordReset(event);
                 default -> log.warn("⚠️ Unknown event type: {}", event.getEventType());
@@ -90,6 +99,38 @@ public class NotificationConsumer {
         }
     }
 
+    // A whole import batch: a welcome email per student, but one HOD lookup and one HOD email per department
+    @SuppressWarnings("unchecked")
+    private void handleBulkRegistrationNotification(NotificationEvent event) {
+        List<Map<String, Object>> users = (List<Map<String, Object>>) event.getPayload().get("users");
+        Map<Long, List<Map<String, Object>>> byDepartment = new LinkedHashMap<>();
+        for (Map<String, Object> user : users) {
+            String userHtml = EmailTemplateBuilder.buildWelcomePendingEmail((String) user.get("enrollmentNo"));
+            emailService.sendEmail((String) user.get("userEmail"), "Registration Successful - Pending Approval", userHtml);
+            byDepartment.computeIfAbsent(Long.valueOf(user.get("departmentId").toString()), id -> new ArrayList<>()).add(user);
+        }
+
+        byDepartment.forEach((deptId, students) -> {
+            try {
+                HodDetailsResponse hod = adminClient.getHodDetails(deptId).getData();
+                if (hod == null || hod.getEmail() == null) {
+                    return;
+                }
+                String hodHtml = EmailTemplateBuilder.buildHodBulkActionRequiredEmail(students);
+                emailService.sendEmail(hod.getEmail(), "Action Required: " + students.size() + " New Student Registrations", hodHtml);
+
+                NotificationEvent hodEvent = NotificationEvent.builder()
+                        .targetUserId(hod.getUserId())
+                        .payload(Map.of("departmentId", deptId, "count", students.size()))
+                        .build();
+                saveAndSendInApp(hodEvent, "New Student Approvals Required",
+                        students.size() + " imported students are waiting for approval.", "INFO");
+            } catch (Exception e) {
+                log.error("❌ Failed to notify HOD of department {} about imported students: {}", deptId, e.getMessage());
+            }
+        });
+    }
+
     private void handleAccountApproved(NotificationEvent event) {
         // USE BUILDER
         String html = EmailTemplateBuilder.buildAccountApprovedEmail();
@@ -113,6 +154,24 @@ public class NotificationConsumer {
                 .build();
 
         repository.save(n);
-        simpMessagingTemplate.convertAndSend("/topic/notifications/" + event.getTargetUserId(), n);
+        try {
+            kafkaTemplate.send(PUSH_TOPIC, String.valueOf(n.getUserId()), objectMapper.writeValueAsString(n));
+        } catch (Exception e) {
+            // Already saved; the user still sees it on the next fetch
+            log.error("❌ Failed to publish in-app push for user {}: {}", n.getUserId(), e.getMessage());
+        }
+    }
+
+    // Own group per instance so every node sees every push. The simple broker only reaches this node's
+    // sockets, so the node without the user's socket sends to nobody: no need to pick an owner
+    @KafkaListener(topics = PUSH_TOPIC, groupId = "notification-push-${random.uuid}",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void push(String message) {
+        try {
+            Notification n = objectMapper.readValue(message, Notification.class);
+            simpMessagingTemplate.convertAndSend("/topic/notifications/" + n.getUserId(), n);
+        } catch (Exception e) {
+            log.error("❌ Error pushing notification: {}", e.getMessage(), e);
+        }
     }
 }
\ No newline at end of file
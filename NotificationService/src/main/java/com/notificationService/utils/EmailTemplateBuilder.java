@@ -1,5 +1,8 @@
 package com.notificationService.utils;
 
+import java.util.List;
+import java.util.Map;
+
 public class EmailTemplateBuilder {
 
     private static final String BRAND_COLOR = "#0056b3";
@@ -77,6 +80,28 @@ public class EmailTemplateBuilder {
         return getBaseTemplate("Action Required: Student Approval", content);
     }
 
+    // 3b. HOD Action Required for a bulk import (one email for the whole batch)
+    public static String buildHodBulkActionRequiredEmail(List<Map<String, Object>> students) {
+        StringBuilder rows = new StringBuilder();
+        for (Map<String, Object> student : students) {
+            rows.append("<tr><td style=\"padding: 8px; border: 1px solid #ddd;\">%s</td><td style=\"padding: 8px; border: 1px solid #ddd;\">%s</td></tr>"
+                    .formatted(student.get("enrollmentNo"), student.get("userEmail")));
+        }
+        String content = """
+            <p>Hello,</p>
+            <p>%d students were imported into your department and require your approval to access departmental resources.</p>
+            <table width="100%%" style="margin: 20px 0; border-collapse: collapse;">
+                <tr><td style="padding: 8px; border: 1px solid #ddd; background: #f9f9f9; font-weight: bold; width: 30%%;">Enrollment No</td><td style="padding: 8px; border: 1px solid #ddd; background: #f9f9f9; font-weight: bold;">Email</td></tr>
+                %s
+            </table>
+            <p>Please log in to the Admin Dashboard to review and approve these requests.</p>
+            <div style="text-align: center; margin: 30px 0;">
+                <a href="http://localhost:3000/admin/dashboard" style="background-color: %s; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold;">Go to Dashboard</a>
+            </div>
+            """.formatted(students.size(), rows, BRAND_COLOR);
+        return getBaseTemplate("Action Required: Student Approvals", content);
+    }
+
     // 4. Account Approved Template
     public static String buildAccountApprovedEmail() {
         String content = """